@@ -1,5 +1,6 @@
 package com.study.querydsl;
 
+import com.study.querydsl.config.StartupReportActivator;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -7,7 +8,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 public class SpringDataJpaQuerydslApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(SpringDataJpaQuerydslApplication.class, args);
+		SpringApplication application = new SpringApplication(SpringDataJpaQuerydslApplication.class);
+		application.addListeners(new StartupReportActivator()); // startup.report.enabled=true 인 경우 기동 단계 기록
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,57 @@
+package com.study.querydsl.batch;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 배치 작업 (job 테이블)
+ *  - 작업 이름 단위로 재실행하면 완료되지 않은 chunk 부터 이어서 처리한다
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "name", "status", "minId", "maxId", "chunkSize"})
+public class BatchJob {
+
+    @Id
+    @GeneratedValue
+    @Column(name = "batch_job_id")
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    private BatchStatus status;
+
+    private Long minId;
+    private Long maxId;
+    private int chunkSize;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public BatchJob(String name, Long minId, Long maxId, int chunkSize) {
+        this.name = name;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.chunkSize = chunkSize;
+        start();
+    }
+
+    public void start() {
+        this.status = BatchStatus.RUNNING;
+        this.startedAt = LocalDateTime.now();
+        this.finishedAt = null;
+    }
+
+    public void finish(boolean success) {
+        this.status = success ? BatchStatus.COMPLETED : BatchStatus.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.study.querydsl.batch;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+/**
+ * Member id 구간 [fromId, toId) 단위 체크포인트
+ *  - 데이터 변경과 같은 트랜잭션에서 COMPLETED 로 바뀌므로, 재실행 시 같은 구간이 두 번 반영되지 않는다
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(of = {"id", "fromId", "toId", "status", "processedRows", "attempts"})
+public class BatchJobChunk {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue
+    @Column(name = "batch_job_chunk_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_job_id")
+    private BatchJob job;
+
+    private long fromId;
+    private long toId;
+
+    @Enumerated(EnumType.STRING)
+    private BatchStatus status;
+
+    private long processedRows;
+    private int attempts;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String errorMessage;
+
+    public BatchJobChunk(BatchJob job, long fromId, long toId) {
+        this.job = job;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.status = BatchStatus.PENDING;
+    }
+
+    public void complete(long processedRows) {
+        this.status = BatchStatus.COMPLETED;
+        this.processedRows = processedRows;
+        this.attempts++;
+        this.errorMessage = null;
+    }
+
+    public void fail(String errorMessage) {
+        this.status = BatchStatus.FAILED;
+        this.attempts++;
+        this.errorMessage = errorMessage == null || errorMessage.length() <= MAX_ERROR_LENGTH
+                ? errorMessage
+                : errorMessage.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,46 @@
+package com.study.querydsl.batch;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 배치 실행 옵션
+ *  - chunkSize 는 작업 최초 실행 시에만 사용된다 (재실행 시 기존 chunk 구간 유지)
+ *  - chunkSize, parallelism 은 1 이상이어야 한다 (build 시 검사)
+ */
+@Getter
+@Builder
+@ToString
+public class BatchJobOptions {
+
+    /**
+     * chunk 하나가 담당하는 Member 수 (chunk 경계는 실제 id 로 정한다)
+     */
+    @Builder.Default
+    private final int chunkSize = 1000;
+
+    /**
+     * 동시에 처리하는 chunk 수 (ForkJoinPool parallelism)
+     */
+    @Builder.Default
+    private final int parallelism = 4;
+
+    /**
+     * 초당 처리 row 수 목표, 0 이하이면 제한하지 않는다
+     */
+    @Builder.Default
+    private final double rowsPerSecond = 0;
+
+    BatchJobOptions(int chunkSize, int parallelism, double rowsPerSecond) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.rowsPerSecond = rowsPerSecond;
+    }
+}
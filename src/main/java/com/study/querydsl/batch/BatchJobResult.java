@@ -0,0 +1,28 @@
+package com.study.querydsl.batch;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+@Getter
+@ToString
+public class BatchJobResult {
+
+    private final String jobName;
+    private final BatchStatus status;
+    private final long processedRows;
+    private final int completedChunks;
+    private final int failedChunks;
+    private final Duration elapsed;
+
+    public BatchJobResult(String jobName, BatchStatus status, long processedRows,
+                          int completedChunks, int failedChunks, Duration elapsed) {
+        this.jobName = jobName;
+        this.status = status;
+        this.processedRows = processedRows;
+        this.completedChunks = completedChunks;
+        this.failedChunks = failedChunks;
+        this.elapsed = elapsed;
+    }
+}
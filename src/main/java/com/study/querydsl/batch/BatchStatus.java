@@ -0,0 +1,5 @@
+package com.study.querydsl.batch;
+
+public enum BatchStatus {
+    PENDING, RUNNING, COMPLETED, FAILED
+}
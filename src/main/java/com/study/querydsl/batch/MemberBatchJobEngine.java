@@ -0,0 +1,260 @@
+package com.study.querydsl.batch;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.cache.OffHeapMemberCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.study.querydsl.batch.QBatchJob.batchJob;
+import static com.study.querydsl.batch.QBatchJobChunk.batchJobChunk;
+import static com.study.querydsl.entity.QMember.member;
+
+/**
+ * Member id 구간을 chunk 로 나누어 병렬 처리하는 배치 엔진
+ *  1. 최초 실행 시 Member id 최소 ~ 최대 구간을 chunk 로 나누어 job / chunk 테이블에 저장한다
+ *     chunk 경계는 실제 id 로 정한다 (keyset) - id 가 듬성듬성하거나 시간 순서 id 여도 chunk 당 row 수는 chunkSize 이하
+ *  2. 완료되지 않은 chunk 를 ForkJoinPool(parallelism) 에서 나누어 처리한다 - chunk 당 트랜잭션 1개
+ *  3. 실패한 chunk 가 있으면 job 은 FAILED, 같은 이름으로 다시 실행하면 남은 chunk 만 처리한다
+ *
+ * 최초 실행 이후 추가된 회원(최대 id 초과)은 처리 대상이 아니다.
+ */
+@Slf4j
+@Component
+public class MemberBatchJobEngine {
+
+    /**
+     * chunk 행을 이 개수마다 flush / clear 하여 영속성 컨텍스트가 커지지 않게 한다
+     */
+    private static final int CHUNK_FLUSH_INTERVAL = 500;
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate chunkTransactionTemplate;
+    private final OffHeapMemberCache memberCache;
+
+    public MemberBatchJobEngine(EntityManager em,
+                                PlatformTransactionManager transactionManager,
+                                OffHeapMemberCache memberCache) {
+        this.em = em;
+        // job / chunk 목록은 조회 건수 제한(querydsl.governance) 대상이 아니다
+        this.queryFactory = new JPAQueryFactory(em);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.memberCache = memberCache;
+    }
+
+    public BatchJobResult run(String jobName, MemberChunkTask task, BatchJobOptions options) {
+        long startNanos = System.nanoTime();
+        List<ChunkRange> chunks = transactionTemplate.execute(status -> prepare(jobName, options));
+
+        RowRateThrottle throttle = new RowRateThrottle(options.getRowsPerSecond());
+        LongAdder processedRows = new LongAdder();
+        AtomicInteger completedChunks = new AtomicInteger();
+        AtomicInteger failedChunks = new AtomicInteger();
+
+        if (!chunks.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(options.getParallelism());
+            try {
+                pool.invoke(new ChunkPartition(chunks, 0, chunks.size(), chunk -> {
+                    try {
+                        long rows = processChunk(chunk, task);
+                        processedRows.add(rows);
+                        completedChunks.incrementAndGet();
+                        throttle.acquire(rows);
+                    } catch (InterruptedException e) {
+                        // 처리 후 대기 중 인터럽트 - chunk 는 이미 커밋되었다
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        log.warn("[batch] {} chunk [{}, {}) failed: {}", jobName, chunk.fromId, chunk.toId, e.toString());
+                        failChunk(chunk, e);
+                        failedChunks.incrementAndGet();
+                    }
+                }));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        BatchStatus status = transactionTemplate.execute(s -> finish(jobName));
+        BatchJobResult result = new BatchJobResult(jobName, status, processedRows.sum(),
+                completedChunks.get(), failedChunks.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+        log.info("[batch] {}", result);
+        return result;
+    }
+
+    /**
+     * @return 이번 실행에서 처리할 chunk 목록
+     */
+    private List<ChunkRange> prepare(String jobName, BatchJobOptions options) {
+        BatchJob job = queryFactory
+                .selectFrom(batchJob)
+                .where(batchJob.name.eq(jobName))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetchOne();
+
+        if (job == null) {
+            Tuple range = queryFactory
+                    .select(member.id.min(), member.id.max())
+                    .from(member)
+                    .fetchOne();
+            Long minId = range == null ? null : range.get(member.id.min());
+            Long maxId = range == null ? null : range.get(member.id.max());
+
+            job = new BatchJob(jobName, minId, maxId, options.getChunkSize());
+            em.persist(job);
+            if (minId != null) {
+                job = persistChunks(job, minId, maxId, options.getChunkSize());
+            }
+        } else if (job.getStatus() == BatchStatus.COMPLETED) {
+            log.info("[batch] {} already completed", jobName);
+            return List.of();
+        } else {
+            log.info("[batch] {} resumes from previous run ({})", jobName, job.getStatus());
+            job.start();
+        }
+        em.flush();
+
+        return queryFactory
+                .select(batchJobChunk.id, batchJobChunk.fromId, batchJobChunk.toId)
+                .from(batchJobChunk)
+                .where(batchJobChunk.job.eq(job), batchJobChunk.status.ne(BatchStatus.COMPLETED))
+                .orderBy(batchJobChunk.fromId.asc())
+                .fetch()
+                .stream()
+                .map(t -> new ChunkRange(t.get(batchJobChunk.id), t.get(batchJobChunk.fromId), t.get(batchJobChunk.toId)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * [from, 다음 경계) 에 chunkSize 개의 id 가 들어가도록 (chunkSize + 1) 번째 id 를 다음 경계로 삼는다
+     *
+     * @return flush / clear 이후에도 사용할 수 있는 job 참조
+     */
+    private BatchJob persistChunks(BatchJob job, long minId, long maxId, int chunkSize) {
+        Long jobId = job.getId();
+        int pending = 0;
+        for (Long from = minId; from != null; ) {
+            Long next = queryFactory
+                    .select(member.id)
+                    .from(member)
+                    .where(member.id.goe(from), member.id.loe(maxId))
+                    .orderBy(member.id.asc())
+                    .offset(chunkSize)
+                    .fetchFirst();
+            em.persist(new BatchJobChunk(job, from, next == null ? maxId + 1 : next));
+            if (++pending == CHUNK_FLUSH_INTERVAL) {
+                em.flush();
+                em.clear();
+                job = em.getReference(BatchJob.class, jobId);
+                pending = 0;
+            }
+            from = next;
+        }
+        return job;
+    }
+
+    /**
+     * 작업과 체크포인트를 같은 트랜잭션에서 커밋한다
+     */
+    private long processChunk(ChunkRange range, MemberChunkTask task) {
+        Long rows = chunkTransactionTemplate.execute(status -> {
+            // 같은 작업이 동시에 실행되어도 chunk 는 한 번만 처리된다
+            BatchJobChunk chunk = em.find(BatchJobChunk.class, range.chunkId, LockModeType.PESSIMISTIC_WRITE);
+            if (chunk.getStatus() == BatchStatus.COMPLETED) {
+                return 0L;
+            }
+            long processed = task.process(em, range.fromId, range.toId);
+            chunk.complete(processed);
+            return processed;
+        });
+        // 벌크 update 는 엔티티 리스너를 거치지 않는다
+        memberCache.invalidateRange(range.fromId, range.toId);
+        return rows;
+    }
+
+    private void failChunk(ChunkRange range, Exception cause) {
+        try {
+            chunkTransactionTemplate.executeWithoutResult(status ->
+                    em.find(BatchJobChunk.class, range.chunkId).fail(cause.toString()));
+        } catch (RuntimeException e) {
+            log.error("[batch] chunk {} failure could not be recorded", range.chunkId, e);
+        }
+    }
+
+    private BatchStatus finish(String jobName) {
+        BatchJob job = queryFactory
+                .selectFrom(batchJob)
+                .where(batchJob.name.eq(jobName))
+                .fetchOne();
+        long remaining = queryFactory
+                .select(batchJobChunk.count())
+                .from(batchJobChunk)
+                .where(batchJobChunk.job.eq(job), batchJobChunk.status.ne(BatchStatus.COMPLETED))
+                .fetchOne();
+        job.finish(remaining == 0);
+        return job.getStatus();
+    }
+
+    private static final class ChunkRange {
+
+        private final long chunkId;
+        private final long fromId;
+        private final long toId;
+
+        private ChunkRange(long chunkId, long fromId, long toId) {
+            this.chunkId = chunkId;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkWorker {
+        void process(ChunkRange chunk);
+    }
+
+    /**
+     * chunk 목록을 반씩 나누어 fork 한다
+     */
+    private static final class ChunkPartition extends RecursiveAction {
+
+        private final List<ChunkRange> chunks;
+        private final int from;
+        private final int to;
+        private final ChunkWorker worker;
+
+        private ChunkPartition(List<ChunkRange> chunks, int from, int to, ChunkWorker worker) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.worker = worker;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                worker.process(chunks.get(from));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkPartition(chunks, from, mid, worker),
+                      new ChunkPartition(chunks, mid, to, worker));
+        }
+    }
+}
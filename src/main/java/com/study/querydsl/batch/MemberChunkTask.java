@@ -0,0 +1,16 @@
+package com.study.querydsl.batch;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Member id 구간 [fromId, toId) 처리 작업
+ *  - chunk 트랜잭션 안에서 호출된다
+ */
+@FunctionalInterface
+public interface MemberChunkTask {
+
+    /**
+     * @return 처리한 row 수
+     */
+    long process(EntityManager em, long fromId, long toId);
+}
@@ -0,0 +1,36 @@
+package com.study.querydsl.batch;
+
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import com.study.querydsl.entity.Team;
+
+import static com.study.querydsl.entity.QMember.member;
+
+/**
+ * 자주 쓰는 Member 유지보수 작업
+ *  - 구간 단위 벌크 update 로 엔티티를 로딩하지 않는다
+ */
+public final class MemberChunkTasks {
+
+    private MemberChunkTasks() {
+    }
+
+    /**
+     * 모든 회원 나이 + delta
+     */
+    public static MemberChunkTask increaseAge(int delta) {
+        return (em, fromId, toId) -> new JPAUpdateClause(em, member)
+                .set(member.age, member.age.add(delta))
+                .where(member.id.goe(fromId), member.id.lt(toId))
+                .execute();
+    }
+
+    /**
+     * fromTeamId 팀 소속 회원을 toTeamId 팀으로 이동
+     */
+    public static MemberChunkTask reassignTeam(Long fromTeamId, Long toTeamId) {
+        return (em, fromId, toId) -> new JPAUpdateClause(em, member)
+                .set(member.team, em.getReference(Team.class, toTeamId))
+                .where(member.id.goe(fromId), member.id.lt(toId), member.team.id.eq(fromTeamId))
+                .execute();
+    }
+}
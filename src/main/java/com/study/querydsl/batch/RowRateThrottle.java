@@ -0,0 +1,36 @@
+package com.study.querydsl.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 row 수 제한 (여러 worker 가 공유)
+ *  - chunk 처리 후 실제 처리한 row 수만큼 시간을 예약하고, 앞선 예약이 밀려 있으면 대기한다
+ *  - 대기하는 동안 해당 worker 는 다음 chunk 를 시작하지 않는다
+ */
+class RowRateThrottle {
+
+    private final double nanosPerRow;
+    private long nextFreeNanos;
+
+    RowRateThrottle(double rowsPerSecond) {
+        this.nanosPerRow = rowsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / rowsPerSecond : 0;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    void acquire(long rows) throws InterruptedException {
+        long waitNanos = reserve(rows);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private synchronized long reserve(long rows) {
+        if (nanosPerRow == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(nextFreeNanos, now);
+        nextFreeNanos = start + (long) (rows * nanosPerRow);
+        return start - now;
+    }
+}
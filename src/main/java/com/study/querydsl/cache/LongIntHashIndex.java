@@ -0,0 +1,100 @@
+package com.study.querydsl.cache;
+
+import java.util.Arrays;
+
+/**
+ * long -> int 오픈 어드레싱(linear probing) 해시 인덱스
+ *  - 박싱 없이 원시 배열만 사용한다
+ *  - 최대 엔트리 수가 정해져 있으므로 리사이즈하지 않는다 (load factor 0.5 이하)
+ *  - 동기화하지 않는다 - 호출자가 락을 잡는다
+ */
+final class LongIntHashIndex {
+
+    static final int NOT_FOUND = -1;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    LongIntHashIndex(int maxEntries) {
+        int tableSize = Integer.highestOneBit(Math.max(maxEntries, 1) * 2 - 1) << 1;
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+        Arrays.fill(values, NOT_FOUND);
+    }
+
+    int get(long key) {
+        for (int i = index(key); values[i] != NOT_FOUND; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    void put(long key, int value) {
+        int i = index(key);
+        for (; values[i] != NOT_FOUND; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+        if (size >= (mask + 1) / 2) {
+            throw new IllegalStateException("index is full: " + size);
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * backward shift 삭제 - tombstone 을 남기지 않는다
+     */
+    void remove(long key) {
+        int i = index(key);
+        while (values[i] != NOT_FOUND && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == NOT_FOUND) {
+            return;
+        }
+
+        int hole = i;
+        for (int j = (hole + 1) & mask; values[j] != NOT_FOUND; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            // home 이 (hole, j] 범위 밖이면 hole 로 당겨온다
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = NOT_FOUND;
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(values, NOT_FOUND);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int index(long key) {
+        return (int) (mix(key) & mask);
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
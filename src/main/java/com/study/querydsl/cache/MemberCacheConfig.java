@@ -0,0 +1,15 @@
+package com.study.querydsl.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MemberCacheConfig {
+
+    @Bean
+    public OffHeapMemberCache offHeapMemberCache(@Value("${member.cache.capacity:100000}") int capacity,
+                                                 @Value("${member.cache.slots-per-segment:65536}") int slotsPerSegment) {
+        return new OffHeapMemberCache(capacity, slotsPerSegment);
+    }
+}
@@ -0,0 +1,62 @@
+package com.study.querydsl.cache;
+
+import com.study.querydsl.entity.Member;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 변경 시 캐시 무효화 (엔티티 리스너)
+ *  - flush 시점에 바로 무효화하고, 트랜잭션 종료 후 한 번 더 무효화한다
+ *    (커밋 전에 다른 스레드가 이전 값을 다시 적재하는 경우 대비)
+ *  - 새 회원(PostPersist)의 id 는 캐시에 있을 수 없으므로 이름 조회 목록만 무효화한다
+ *  - 벌크 연산(update / delete 절)은 엔티티 리스너를 거치지 않으므로 직접 무효화해야 한다
+ *  - Spring Boot 가 SpringBeanContainer 를 등록하므로 Hibernate 가 이 빈을 주입받아 사용한다
+ */
+@Component
+public class MemberCacheInvalidationListener {
+
+    private final OffHeapMemberCache cache;
+
+    public MemberCacheInvalidationListener(OffHeapMemberCache cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    public void invalidateUserName(Member member) {
+        evictNowAndOnCompletion(null, member.getUserName());
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Member member) {
+        evictNowAndOnCompletion(member.getId(), member.getUserName());
+    }
+
+    private void evictNowAndOnCompletion(Long id, String userName) {
+        evict(id, userName);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, userName);
+                }
+            });
+        }
+    }
+
+    /**
+     * 기존 레코드(이전 이름 포함)와 현재 이름의 complete 표시를 함께 지운다
+     */
+    private void evict(Long id, String userName) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+        cache.invalidateUserName(userName);
+    }
+}
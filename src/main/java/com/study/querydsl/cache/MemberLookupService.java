@@ -0,0 +1,84 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
+
+import static com.study.querydsl.entity.QMember.member;
+
+/**
+ * Member id / userName 조회 (read-through 캐시)
+ *  - 캐시 적중 시 트랜잭션, 커넥션, 영속성 컨텍스트를 사용하지 않도록 @Transactional 을 붙이지 않는다
+ *  - 캐시 미스 시에도 엔티티가 아닌 {@link MemberSnapshot} 으로 바로 조회한다 (member.team.id 는 FK 컬럼 조회)
+ *  - DB 조회 전에 캐시 stamp 를 읽어, 조회 중 해당 id / 이름이 무효화되었다면 결과를 적재하지 않는다
+ *  - 쓰기 트랜잭션 안에서는 조회 결과를 적재하지 않는다 (flush 된 미커밋 변경이 공유 캐시로 새지 않도록)
+ */
+@Service
+public class MemberLookupService {
+
+    /**
+     * 이름 조회 최대 건수 - 이보다 많으면 결과를 complete 로 캐시하지 않는다
+     */
+    static final int MAX_NAME_LOOKUP_ROWS = 1000;
+
+    private static final ConstructorExpression<MemberSnapshot> SNAPSHOT = Projections.constructor(MemberSnapshot.class,
+            member.id, member.userName, member.age, member.team.id);
+
+    private final OffHeapMemberCache cache;
+    private final JPAQueryFactory queryFactory;
+
+    public MemberLookupService(OffHeapMemberCache cache, EntityManager em) {
+        this.cache = cache;
+        // 조회 건수 제한(querydsl.governance.max-results)으로 잘린 목록을 complete 로 캐시하지 않도록 직접 limit 을 건다
+        this.queryFactory = new JPAQueryFactory(em);
+    }
+
+    public Optional<MemberSnapshot> findById(Long id) {
+        MemberSnapshot cached = cache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long stamp = cache.stamp();
+        MemberSnapshot loaded = queryFactory
+                .select(SNAPSHOT)
+                .from(member)
+                .where(member.id.eq(id))
+                .fetchOne();
+        if (loaded != null && mayFillCache()) {
+            cache.put(loaded, stamp);
+        }
+        return Optional.ofNullable(loaded);
+    }
+
+    public List<MemberSnapshot> findByUserName(String userName) {
+        List<MemberSnapshot> cached = cache.getByUserName(userName);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = cache.stamp();
+        List<MemberSnapshot> loaded = queryFactory
+                .select(SNAPSHOT)
+                .from(member)
+                .where(member.userName.eq(userName))
+                .orderBy(member.id.asc())
+                .limit(MAX_NAME_LOOKUP_ROWS)
+                .fetch();
+        if (loaded.size() < MAX_NAME_LOOKUP_ROWS && mayFillCache()) {
+            cache.putAllByUserName(userName, loaded, stamp);
+        }
+        return loaded;
+    }
+
+    private static boolean mayFillCache() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
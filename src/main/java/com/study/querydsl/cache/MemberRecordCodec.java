@@ -0,0 +1,114 @@
+package com.study.querydsl.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 고정 크기 슬롯 바이너리 인코딩
+ *
+ * <pre>
+ * | 0  id (long) | 8  teamId (long) | 16 nameHash (long) | 24 age (int) | 28 nameLength (short) | 30 name (UTF-8) |
+ * </pre>
+ *
+ *  - 모든 접근은 absolute get/put 으로 하여 ByteBuffer position 을 공유하지 않는다 (동시 읽기 안전)
+ */
+final class MemberRecordCodec {
+
+    static final int SLOT_SIZE = 128;
+    static final int MAX_NAME_BYTES = SLOT_SIZE - 30;
+
+    private static final int ID = 0;
+    private static final int TEAM_ID = 8;
+    private static final int NAME_HASH = 16;
+    private static final int AGE = 24;
+    private static final int NAME_LENGTH = 28;
+    private static final int NAME = 30;
+
+    private static final long NO_TEAM = Long.MIN_VALUE;
+    private static final short NULL_NAME = -1;
+
+    private MemberRecordCodec() {
+    }
+
+    /**
+     * @return 인코딩할 이름 바이트, 슬롯에 들어가지 않으면 null
+     */
+    static byte[] encodableName(String userName) {
+        if (userName == null) {
+            return new byte[0];
+        }
+        byte[] bytes = userName.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_NAME_BYTES ? bytes : null;
+    }
+
+    static void write(ByteBuffer segment, int offset, MemberSnapshot member, byte[] nameBytes, long nameHash) {
+        segment.putLong(offset + ID, member.getId());
+        segment.putLong(offset + TEAM_ID, member.getTeamId() == null ? NO_TEAM : member.getTeamId());
+        segment.putLong(offset + NAME_HASH, nameHash);
+        segment.putInt(offset + AGE, member.getAge());
+        segment.putShort(offset + NAME_LENGTH, member.getUserName() == null ? NULL_NAME : (short) nameBytes.length);
+        for (int i = 0; i < nameBytes.length; i++) {
+            segment.put(offset + NAME + i, nameBytes[i]);
+        }
+    }
+
+    static MemberSnapshot read(ByteBuffer segment, int offset) {
+        long teamId = segment.getLong(offset + TEAM_ID);
+        return new MemberSnapshot(
+                id(segment, offset),
+                userName(segment, offset),
+                segment.getInt(offset + AGE),
+                teamId == NO_TEAM ? null : teamId);
+    }
+
+    static long id(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + ID);
+    }
+
+    static long nameHash(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + NAME_HASH);
+    }
+
+    static boolean hasName(ByteBuffer segment, int offset) {
+        return segment.getShort(offset + NAME_LENGTH) != NULL_NAME;
+    }
+
+    /**
+     * 문자열을 만들지 않고 이름 바이트를 비교한다
+     */
+    static boolean nameEquals(ByteBuffer segment, int offset, byte[] nameBytes) {
+        if (segment.getShort(offset + NAME_LENGTH) != nameBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < nameBytes.length; i++) {
+            if (segment.get(offset + NAME + i) != nameBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String userName(ByteBuffer segment, int offset) {
+        short length = segment.getShort(offset + NAME_LENGTH);
+        if (length == NULL_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = segment.get(offset + NAME + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * FNV-1a 64bit + murmur3 fmix64
+     */
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        return LongIntHashIndex.mix(h);
+    }
+}
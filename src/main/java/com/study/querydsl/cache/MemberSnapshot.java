@@ -0,0 +1,26 @@
+package com.study.querydsl.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 캐시 조회 결과 - 영속성 컨텍스트와 무관한 불변 값 객체
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class MemberSnapshot {
+
+    private final Long id;
+    private final String userName;
+    private final int age;
+    private final Long teamId;
+
+    public MemberSnapshot(Long id, String userName, int age, Long teamId) {
+        this.id = id;
+        this.userName = userName;
+        this.age = age;
+        this.teamId = teamId;
+    }
+}
@@ -0,0 +1,399 @@
+package com.study.querydsl.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * off-heap Member 조회 캐시
+ *  - 레코드는 direct ByteBuffer 세그먼트의 고정 크기 슬롯({@link MemberRecordCodec})에 저장한다
+ *  - id -> slot 기본 인덱스, userName 해시 -> slot 체인 보조 인덱스 (원시 배열)
+ *  - 가득 차면 CLOCK(second chance) 방식으로 교체한다
+ *  - 이름 조회는 해당 이름의 회원 전체가 적재된 경우(complete)에만 캐시에서 응답한다
+ *  - 무효화는 id / 이름 해시별 stripe 에 순번(stamp)을 남기고, DB 조회 전에 읽은 {@link #stamp()} 이후
+ *    해당 stripe 가 무효화되었으면 적재하지 않는다 (조회와 커밋 사이에 무효화가 끝나 오래된 값이 다시 적재되는 경쟁 방지)
+ *  - 무효화는 지울 레코드 / complete 표시가 있을 때만 쓰기 락을 잡는다
+ *
+ * heap 에는 슬롯당 int(체인) + byte(참조 비트)와 인덱스 배열만 남는다.
+ */
+public class OffHeapMemberCache {
+
+    private static final int NO_SLOT = LongIntHashIndex.NOT_FOUND;
+    private static final int STRIPES = 4096; // 2의 거듭제곱
+
+    private final int capacity;
+    private final int slotsPerSegment;
+    private final ByteBuffer[] segments;
+
+    private final LongIntHashIndex idIndex;
+    private final LongIntHashIndex nameIndex;
+    private final LongIntHashIndex completeNames;
+    private final int[] nextByName;
+    private final byte[] referenced;
+
+    private final int[] freeSlots;
+    private int freeCount;
+    private int clockHand;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLongArray idStamps = new AtomicLongArray(STRIPES);
+    private final AtomicLongArray nameStamps = new AtomicLongArray(STRIPES);
+    private volatile long allStamp; // clear / 넓은 구간 무효화
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapMemberCache(int capacity, int slotsPerSegment) {
+        if (capacity < 1 || slotsPerSegment < 1) {
+            throw new IllegalArgumentException("capacity and slotsPerSegment must be positive");
+        }
+        if (slotsPerSegment > Integer.MAX_VALUE / MemberRecordCodec.SLOT_SIZE) {
+            throw new IllegalArgumentException("slotsPerSegment is too large: " + slotsPerSegment);
+        }
+        this.capacity = capacity;
+        this.slotsPerSegment = slotsPerSegment;
+        this.segments = new ByteBuffer[(capacity + slotsPerSegment - 1) / slotsPerSegment];
+        for (int i = 0; i < segments.length; i++) {
+            int slots = Math.min(slotsPerSegment, capacity - i * slotsPerSegment);
+            segments[i] = ByteBuffer.allocateDirect(slots * MemberRecordCodec.SLOT_SIZE);
+        }
+
+        this.idIndex = new LongIntHashIndex(capacity);
+        this.nameIndex = new LongIntHashIndex(capacity);
+        this.completeNames = new LongIntHashIndex(capacity);
+        this.nextByName = new int[capacity];
+        this.referenced = new byte[capacity];
+        this.freeSlots = new int[capacity];
+        resetFreeSlots();
+    }
+
+    /**
+     * @return 캐시에 없으면 null
+     */
+    public MemberSnapshot get(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = idIndex.get(id);
+            if (slot == NO_SLOT) {
+                return null;
+            }
+            referenced[slot] = 1; // 경쟁 조건이 있어도 참조 비트 유실만 발생한다
+            return MemberRecordCodec.read(segment(slot), offset(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return 해당 이름의 회원 전체가 캐시에 있으면 목록, 아니면 null
+     */
+    public List<MemberSnapshot> getByUserName(String userName) {
+        byte[] nameBytes = MemberRecordCodec.encodableName(userName);
+        if (userName == null || nameBytes == null) {
+            return null;
+        }
+        long nameHash = MemberRecordCodec.hash(nameBytes);
+
+        lock.readLock().lock();
+        try {
+            if (completeNames.get(nameHash) == NO_SLOT) {
+                return null;
+            }
+            List<MemberSnapshot> result = new ArrayList<>();
+            for (int slot = nameIndex.get(nameHash); slot != NO_SLOT; slot = nextByName[slot]) {
+                ByteBuffer segment = segment(slot);
+                if (MemberRecordCodec.nameEquals(segment, offset(slot), nameBytes)) {
+                    referenced[slot] = 1;
+                    result.add(MemberRecordCodec.read(segment, offset(slot)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * DB 조회 전에 읽어 두고 {@link #put} / {@link #putAllByUserName} 에 넘긴다
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * @param stamp DB 조회 전에 읽은 {@link #stamp()}
+     * @return 이름이 슬롯에 들어가지 않거나 그 사이 해당 id 가 무효화되어 캐시하지 않았다면 false
+     */
+    public boolean put(MemberSnapshot member, long stamp) {
+        byte[] nameBytes = MemberRecordCodec.encodableName(member.getUserName());
+        if (member.getId() == null || nameBytes == null) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (invalidatedSince(stamp, idStamps, member.getId())) {
+                return false;
+            }
+            putLocked(member, nameBytes);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 이름 조회 결과 전체를 적재하고, 모두 캐시에 남아 있다면 complete 로 표시한다
+     *
+     * @param stamp DB 조회 전에 읽은 {@link #stamp()} - 그 사이 이름이나 회원 중 하나라도 무효화되었으면 적재하지 않는다
+     */
+    public void putAllByUserName(String userName, List<MemberSnapshot> members, long stamp) {
+        byte[] nameBytes = MemberRecordCodec.encodableName(userName);
+        if (userName == null || nameBytes == null || members.isEmpty() || members.size() > capacity / 2) {
+            return;
+        }
+        long nameHash = MemberRecordCodec.hash(nameBytes);
+
+        lock.writeLock().lock();
+        try {
+            if (invalidatedSince(stamp, nameStamps, nameHash)) {
+                return;
+            }
+            for (MemberSnapshot member : members) {
+                if (invalidatedSince(stamp, idStamps, member.getId())) {
+                    return;
+                }
+            }
+            for (MemberSnapshot member : members) {
+                putLocked(member, nameBytes);
+            }
+            // 적재 중 같은 이름의 레코드가 교체되었을 수 있다
+            int cached = 0;
+            for (int slot = nameIndex.get(nameHash); slot != NO_SLOT; slot = nextByName[slot]) {
+                if (MemberRecordCodec.nameEquals(segment(slot), offset(slot), nameBytes)) {
+                    cached++;
+                }
+            }
+            if (cached == members.size()) {
+                completeNames.put(nameHash, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate(long id) {
+        // stamp 를 먼저 남긴다 - 이후 적재는 막히고, 이전에 적재된 레코드는 아래에서 지운다
+        markInvalidated(idStamps, id);
+        if (!containsId(id)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = idIndex.get(id);
+            if (slot != NO_SLOT) {
+                removeSlot(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * id 구간 [fromId, toId) 무효화 - 벌크 update 처럼 엔티티 리스너를 거치지 않는 변경에 사용한다
+     *  - 구간이 슬롯 수보다 넓으면 id 를 하나씩 찾지 않고 슬롯을 순회한다
+     */
+    public void invalidateRange(long fromId, long toId) {
+        if (toId - fromId > STRIPES) {
+            allStamp = invalidations.incrementAndGet();
+        } else {
+            for (long id = fromId; id < toId; id++) {
+                markInvalidated(idStamps, id);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            if (toId - fromId > capacity) {
+                for (int slot = 0; slot < capacity; slot++) {
+                    long id = MemberRecordCodec.id(segment(slot), offset(slot));
+                    // 빈 슬롯에 남은 이전 레코드는 인덱스가 가리키지 않는다
+                    if (id >= fromId && id < toId && idIndex.get(id) == slot) {
+                        removeSlot(slot);
+                    }
+                }
+                return;
+            }
+            for (long id = fromId; id < toId; id++) {
+                int slot = idIndex.get(id);
+                if (slot != NO_SLOT) {
+                    removeSlot(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 해당 이름의 회원 목록이 바뀌었음을 알린다 (레코드는 유지, 이름 조회만 DB 로 보낸다)
+     */
+    public void invalidateUserName(String userName) {
+        byte[] nameBytes = MemberRecordCodec.encodableName(userName);
+        if (userName == null || nameBytes == null) {
+            return;
+        }
+        long nameHash = MemberRecordCodec.hash(nameBytes);
+        markInvalidated(nameStamps, nameHash);
+        if (!containsCompleteName(nameHash)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            completeNames.remove(nameHash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        allStamp = invalidations.incrementAndGet();
+        lock.writeLock().lock();
+        try {
+            idIndex.clear();
+            nameIndex.clear();
+            completeNames.clear();
+            Arrays.fill(referenced, (byte) 0);
+            resetFreeSlots();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return idIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private boolean containsId(long id) {
+        lock.readLock().lock();
+        try {
+            return idIndex.get(id) != NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean containsCompleteName(long nameHash) {
+        lock.readLock().lock();
+        try {
+            return completeNames.get(nameHash) != NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void markInvalidated(AtomicLongArray stamps, long key) {
+        long stamp = invalidations.incrementAndGet();
+        stamps.accumulateAndGet(stripe(key), stamp, Math::max);
+    }
+
+    private boolean invalidatedSince(long stamp, AtomicLongArray stamps, long key) {
+        return allStamp > stamp || stamps.get(stripe(key)) > stamp;
+    }
+
+    private static int stripe(long key) {
+        return (int) (LongIntHashIndex.mix(key) & (STRIPES - 1));
+    }
+
+    private void putLocked(MemberSnapshot member, byte[] nameBytes) {
+        int existing = idIndex.get(member.getId());
+        if (existing != NO_SLOT) {
+            removeSlot(existing);
+        }
+
+        int slot = allocateSlot();
+        long nameHash = MemberRecordCodec.hash(nameBytes);
+        MemberRecordCodec.write(segment(slot), offset(slot), member, nameBytes, nameHash);
+        idIndex.put(member.getId(), slot);
+        if (member.getUserName() != null) {
+            nextByName[slot] = nameIndex.get(nameHash);
+            nameIndex.put(nameHash, slot);
+        }
+        referenced[slot] = 1;
+    }
+
+    /**
+     * 빈 슬롯이 없으면 CLOCK 으로 참조 비트가 꺼진 슬롯을 교체한다
+     */
+    private int allocateSlot() {
+        while (freeCount == 0) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % capacity;
+            if (referenced[slot] != 0) {
+                referenced[slot] = 0;
+            } else {
+                removeSlot(slot);
+            }
+        }
+        return freeSlots[--freeCount];
+    }
+
+    private void removeSlot(int slot) {
+        ByteBuffer segment = segment(slot);
+        int offset = offset(slot);
+        idIndex.remove(MemberRecordCodec.id(segment, offset));
+
+        if (MemberRecordCodec.hasName(segment, offset)) {
+            long nameHash = MemberRecordCodec.nameHash(segment, offset);
+            unlinkName(nameHash, slot);
+            completeNames.remove(nameHash);
+        }
+        referenced[slot] = 0;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void unlinkName(long nameHash, int slot) {
+        int head = nameIndex.get(nameHash);
+        if (head == slot) {
+            if (nextByName[slot] == NO_SLOT) {
+                nameIndex.remove(nameHash);
+            } else {
+                nameIndex.put(nameHash, nextByName[slot]);
+            }
+            return;
+        }
+        for (int prev = head; prev != NO_SLOT; prev = nextByName[prev]) {
+            if (nextByName[prev] == slot) {
+                nextByName[prev] = nextByName[slot];
+                return;
+            }
+        }
+    }
+
+    private void resetFreeSlots() {
+        // 낮은 번호의 슬롯부터 사용한다
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+    private ByteBuffer segment(int slot) {
+        return segments[slot / slotsPerSegment];
+    }
+
+    private int offset(int slot) {
+        return (slot % slotsPerSegment) * MemberRecordCodec.SLOT_SIZE;
+    }
+}
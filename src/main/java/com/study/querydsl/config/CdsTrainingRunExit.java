@@ -0,0 +1,58 @@
+package com.study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * AppCDS 아카이브 생성용 학습(training) 실행
+ *  - 컨텍스트 기동이 끝나면 첫 요청을 한 번 보낸 뒤 종료하여 JVM 이 -XX:ArchiveClassesAtExit 아카이브를 덤프하도록 한다
+ *    (lazy 초기화 빈과 요청 처리 경로의 클래스까지 아카이브에 포함)
+ *  - deferred 부트스트랩으로 백그라운드에서 생성 중인 EntityManagerFactory 를 기다린 뒤 종료한다 (Hibernate 클래스 포함)
+ *  - ./gradlew cdsArchive 에서 cds.training=true 로 실행된다
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // 기동 시간 리포트 이후
+@ConditionalOnProperty(name = "cds.training", havingValue = "true")
+public class CdsTrainingRunExit implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final String requestPath;
+
+    public CdsTrainingRunExit(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                              @Value("${cds.training.request-path:/hello}") String requestPath) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.requestPath = requestPath;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        entityManagerFactory.ifAvailable(EntityManagerFactory::getMetamodel);
+        firstRequest(event.getApplicationContext());
+        log.info("[cds] training run 완료, 애플리케이션을 종료합니다");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    private void firstRequest(ApplicationContext context) {
+        if (!(context instanceof WebServerApplicationContext)) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        ResponseEntity<String> response = new RestTemplate().getForEntity("http://localhost:" + port + requestPath, String.class);
+        log.info("[cds] first request {} -> {}", requestPath, response.getStatusCodeValue());
+    }
+}
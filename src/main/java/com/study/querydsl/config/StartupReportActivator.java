@@ -0,0 +1,30 @@
+package com.study.querydsl.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * startup.report.enabled=true 인 경우에만 기동 단계(StartupStep)를 버퍼에 기록한다
+ *  - 설정 파일(프로파일 포함)이 반영된 뒤, 컨텍스트 생성 전에 ApplicationStartup 을 교체한다
+ *  - 기본 프로파일에서는 기록 비용과 버퍼 메모리가 들지 않는다
+ *  - 버퍼는 {@link StartupTimingReporter} 가 리포트 후 비운다
+ */
+public class StartupReportActivator implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    static final String ENABLED_PROPERTY = "startup.report.enabled";
+
+    /**
+     * 기동 단계 버퍼 크기 - 빈 개수보다 넉넉하게 잡는다
+     */
+    private static final int BUFFER_CAPACITY = 4096;
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (event.getEnvironment().getProperty(ENABLED_PROPERTY, Boolean.class, false)) {
+            SpringApplication application = event.getSpringApplication();
+            application.setApplicationStartup(new BufferingApplicationStartup(BUFFER_CAPACITY));
+        }
+    }
+}
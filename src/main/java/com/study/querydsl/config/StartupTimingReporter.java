@@ -0,0 +1,153 @@
+package com.study.querydsl.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 기동 시간 리포트
+ *  - BufferingApplicationStartup 에 쌓인 StartupStep 을 단계(phase)별, 빈(bean)별로 집계하여 로그로 남긴다
+ *  - ApplicationReadyEvent 에서 한 번, 첫 요청 처리 후(ServletRequestHandledEvent) 한 번 리포트한다
+ *    lazy 초기화 빈은 첫 요청에서 생성되므로 두 번째 리포트에 나타난다
+ *  - 첫 요청 리포트 후에는 더 이상 기록하지 않는다
+ *  - startup.report.enabled=true 인 경우에만 등록된다 (fast 프로파일 기본값)
+ *  - 버퍼는 {@link StartupReportActivator} 가 같은 조건에서 설치한다
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = StartupReportActivator.ENABLED_PROPERTY, havingValue = "true")
+public class StartupTimingReporter implements SmartApplicationListener {
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+    private static final String BEAN_NAME_TAG = "beanName";
+
+    private final int topBeans;
+    private final AtomicBoolean firstRequestReported = new AtomicBoolean();
+    private volatile BufferingApplicationStartup startup;
+
+    public StartupTimingReporter(@Value("${startup.report.top-beans:20}") int topBeans) {
+        this.topBeans = topBeans;
+    }
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return ApplicationReadyEvent.class.isAssignableFrom(eventType)
+                || ServletRequestHandledEvent.class.isAssignableFrom(eventType);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ApplicationReadyEvent) {
+            onReady((ApplicationReadyEvent) event);
+        } else if (event instanceof ServletRequestHandledEvent) {
+            onRequestHandled((ServletRequestHandledEvent) event);
+        }
+    }
+
+    private void onReady(ApplicationReadyEvent event) {
+        ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+        if (!(applicationStartup instanceof BufferingApplicationStartup)) {
+            log.info("[startup] time-to-ready = {} ms (BufferingApplicationStartup 미사용으로 상세 리포트 생략)",
+                    millis(event.getTimeTaken()));
+            return;
+        }
+
+        startup = (BufferingApplicationStartup) applicationStartup;
+        // drain 하여 기동 단계가 첫 요청 리포트에 다시 포함되지 않도록 한다
+        log.info(report("time-to-ready", startup.drainBufferedTimeline(), event.getTimeTaken()));
+    }
+
+    private void onRequestHandled(ServletRequestHandledEvent event) {
+        if (startup == null || !firstRequestReported.compareAndSet(false, true)) {
+            return;
+        }
+
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        // 이후 생성되는 빈은 기록하지 않는다 - 버퍼가 JVM 수명 동안 차오르지 않도록
+        startup.addFilter(step -> false);
+        Duration timeToFirstRequest = Duration.between(timeline.getStartTime(), Instant.ofEpochMilli(event.getTimestamp()));
+        log.info(report("time-to-first-request", timeline, timeToFirstRequest)
+                + String.format("%n[startup] first request %s %s (%d ms)",
+                event.getMethod(), event.getRequestUrl(), event.getProcessingTimeMillis()));
+    }
+
+    String report(String milestone, StartupTimeline timeline, Duration timeTaken) {
+        StringBuilder report = new StringBuilder();
+        report.append("\n[startup] ").append(milestone).append(" = ").append(millis(timeTaken)).append(" ms");
+        report.append("\n[startup] phase (중첩 단계는 상위 단계에도 포함된다)");
+        appendSorted(report, durationsByPhase(timeline), Integer.MAX_VALUE);
+        report.append("\n[startup] bean top ").append(topBeans).append(" (의존 빈 생성 시간 포함)");
+        appendSorted(report, durationsByBean(timeline), topBeans);
+        return report.toString();
+    }
+
+    /**
+     * StartupStep 이름(phase)별 소요 시간 합계
+     */
+    static Map<String, Duration> durationsByPhase(StartupTimeline timeline) {
+        Map<String, Duration> byPhase = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            byPhase.merge(timelineEvent.getStartupStep().getName(), timelineEvent.getDuration(), Duration::plus);
+        }
+        return byPhase;
+    }
+
+    /**
+     * spring.beans.instantiate 단계의 빈 이름별 소요 시간 합계
+     */
+    static Map<String, Duration> durationsByBean(StartupTimeline timeline) {
+        Map<String, Duration> byBean = new LinkedHashMap<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            StartupStep step = timelineEvent.getStartupStep();
+            if (BEAN_INSTANTIATE_STEP.equals(step.getName())) {
+                String beanName = beanName(step);
+                if (beanName != null) {
+                    byBean.merge(beanName, timelineEvent.getDuration(), Duration::plus);
+                }
+            }
+        }
+        return byBean;
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (BEAN_NAME_TAG.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void appendSorted(StringBuilder report, Map<String, Duration> durations, int limit) {
+        durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(entry -> report.append(String.format("%n  %8d ms  %s", millis(entry.getValue()), entry.getKey())));
+    }
+
+    private static long millis(Duration duration) {
+        return duration == null ? -1 : duration.toMillis();
+    }
+}
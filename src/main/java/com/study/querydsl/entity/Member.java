@@ -1,10 +1,16 @@
 package com.study.querydsl.entity;
 
+import com.study.querydsl.cache.MemberCacheInvalidationListener;
+import com.study.querydsl.id.AllocatedIdGenerator;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 
 @Entity
+@EntityListeners(MemberCacheInvalidationListener.class) // off-heap 조회 캐시 무효화
 @Getter
 @Setter // 실무 지양
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // JPA는 스펙상 기본 생성자가 필요하다
@@ -12,7 +18,9 @@ import javax.persistence.*;
 public class Member {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_id_generator")
+    @GenericGenerator(name = "member_id_generator", strategy = AllocatedIdGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     @Column(name = "member_id")
     private Long id;
     private String userName;
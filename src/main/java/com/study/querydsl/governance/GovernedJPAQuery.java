@@ -0,0 +1,72 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.List;
+
+/**
+ * {@link QueryGovernor} 정책이 적용되는 JPAQuery
+ *  - fetch / fetchOne / fetchFirst / fetchResults / stream 모두 createQuery 를 거친다
+ */
+@Slf4j
+public class GovernedJPAQuery<T> extends JPAQuery<T> {
+
+    private final QueryGovernor governor;
+    private boolean degraded;
+    private boolean singleRow;
+
+    public GovernedJPAQuery(EntityManager em, QueryGovernor governor) {
+        this(em, JPAProvider.getTemplates(em), new DefaultQueryMetadata(), governor);
+    }
+
+    public GovernedJPAQuery(EntityManager em, JPQLTemplates templates, QueryMetadata metadata, QueryGovernor governor) {
+        super(em, templates, metadata);
+        this.governor = governor;
+    }
+
+    @Override
+    protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+        governor.inspect(getMetadata());
+        Query query = super.createQuery(modifiers, forCount);
+        degraded = governor.apply(query, getMetadata(), forCount, singleRow);
+        return query;
+    }
+
+    /**
+     * AbstractJPAQuery.fetchOne 은 limit 없이 createQuery 를 호출하므로 단건 조회임을 표시한다
+     */
+    @Override
+    public T fetchOne() throws NonUniqueResultException {
+        singleRow = true;
+        try {
+            return super.fetchOne();
+        } finally {
+            singleRow = false;
+        }
+    }
+
+    @Override
+    public List<T> fetch() {
+        List<T> result = super.fetch();
+        if (degraded && result.size() >= governor.maxResults()) {
+            log.warn("[governance] result truncated to {} rows", result.size());
+        }
+        return result;
+    }
+
+    @Override
+    public GovernedJPAQuery<T> clone(EntityManager entityManager, JPQLTemplates templates) {
+        GovernedJPAQuery<T> q = new GovernedJPAQuery<>(entityManager, templates, getMetadata().clone(), governor);
+        q.clone(this);
+        return q;
+    }
+}
@@ -0,0 +1,27 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+
+import javax.persistence.EntityManager;
+
+/**
+ * select / selectFrom / from 으로 생성되는 조회 쿼리에 {@link QueryGovernor} 정책을 적용한다
+ *  - update / delete / insert 절은 기본 JPAQueryFactory 와 동일하다
+ */
+public class GovernedJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager entityManager;
+    private final QueryGovernor governor;
+
+    public GovernedJPAQueryFactory(EntityManager entityManager, QueryGovernor governor) {
+        super(entityManager);
+        this.entityManager = entityManager;
+        this.governor = governor;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new GovernedJPAQuery<Void>(entityManager, governor);
+    }
+}
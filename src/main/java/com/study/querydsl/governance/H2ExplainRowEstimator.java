@@ -0,0 +1,110 @@
+package com.study.querydsl.governance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * H2 EXPLAIN 기반 예상 row 수 추정
+ *  - JPQL 을 SQL 로 변환하여 EXPLAIN 을 실행하고, 실행 계획에서 tableScan 대상 테이블을 찾는다
+ *  - tableScan 테이블은 INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE, 인덱스 조회 테이블은 1건으로 보고 곱한다
+ *  - 파라미터는 null 로 바인딩한다 (실행 계획의 인덱스 사용 여부만 필요)
+ *  - 커넥션은 DataSourceUtils 로 얻는다 - 트랜잭션 안에서는 같은 커넥션, 밖에서는 풀의 커넥션을 사용한다
+ */
+@Slf4j
+public class H2ExplainRowEstimator {
+
+    private static final String H2 = "H2";
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\*\\s*([A-Za-z0-9_]+)\\.([A-Za-z0-9_]+)\\.tableScan\\s*\\*/");
+    private static final String ROW_COUNT_SQL =
+            "select ROW_COUNT_ESTIMATE from INFORMATION_SCHEMA.TABLES where TABLE_SCHEMA = ? and TABLE_NAME = ?";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final DataSource dataSource;
+
+    public H2ExplainRowEstimator(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return 예상 row 수, H2 가 아니거나 추정할 수 없으면 empty
+     */
+    public OptionalLong estimate(Query query) {
+        Connection connection = null;
+        try {
+            String hql = query.unwrap(org.hibernate.query.Query.class).getQueryString();
+            HQLQueryPlan plan = sessionFactory.getQueryPlanCache().getHQLQueryPlan(hql, false, Collections.emptyMap());
+
+            connection = DataSourceUtils.getConnection(dataSource);
+            if (!H2.equals(connection.getMetaData().getDatabaseProductName())) {
+                return OptionalLong.empty();
+            }
+            long estimated = 0;
+            for (String sql : plan.getSqlStrings()) {
+                estimated = saturatedAdd(estimated, estimate(connection, sql));
+            }
+            return OptionalLong.of(estimated);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("[governance] EXPLAIN 추정 실패: {}", e.toString());
+            return OptionalLong.empty();
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private long estimate(Connection connection, String sql) throws SQLException {
+        String explainPlan = explain(connection, sql);
+        long rows = 1;
+        Matcher matcher = TABLE_SCAN.matcher(explainPlan);
+        while (matcher.find()) {
+            rows = saturatedMultiply(rows, rowCount(connection, matcher.group(1), matcher.group(2)));
+        }
+        return rows;
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameterCount = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                ps.setNull(i, Types.NULL);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : "";
+            }
+        }
+    }
+
+    private long rowCount(Connection connection, String schema, String table) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(ROW_COUNT_SQL)) {
+            ps.setString(1, schema);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Math.max(rs.getLong(1), 1) : 1;
+            }
+        }
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+}
@@ -0,0 +1,139 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.TemplateExpression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 조인 조건이 없는 조인(카테시안 곱) 검출
+ *  - from/join 대상의 root path 를 노드로 보고, 연관관계 조인 / on 절 / where 절 조건으로 연결한다
+ *  - 첫 번째 from 대상과 연결되지 않는 대상이 있다면 조인 조건이 없는 것으로 본다
+ *  - ex) from(member, team) 에 member.userName.eq(team.name) 조건이 없는 경우
+ */
+final class JoinConditionInspector {
+
+    private JoinConditionInspector() {
+    }
+
+    /**
+     * @return 조인 조건 없이 연결된 from/join 대상 (없으면 빈 목록)
+     */
+    static List<Expression<?>> findUnconnectedJoins(QueryMetadata metadata) {
+        List<JoinExpression> joins = metadata.getJoins();
+        if (joins.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        UnionFind roots = new UnionFind();
+        for (JoinExpression join : joins) {
+            roots.connect(rootsOf(join.getTarget())); // member.team as team
+            if (join.getCondition() != null) {
+                connectConjuncts(roots, join.getCondition()); // on 절
+            }
+        }
+        if (metadata.getWhere() != null) {
+            connectConjuncts(roots, metadata.getWhere()); // 세타 조인
+        }
+
+        Path<?> first = aliasRoot(joins.get(0).getTarget());
+        List<Expression<?>> unconnected = new ArrayList<>();
+        for (JoinExpression join : joins.subList(1, joins.size())) {
+            Path<?> root = aliasRoot(join.getTarget());
+            if (first != null && root != null && !roots.connected(first, root)) {
+                unconnected.add(join.getTarget());
+            }
+        }
+        return unconnected;
+    }
+
+    private static void connectConjuncts(UnionFind roots, Predicate predicate) {
+        if (predicate instanceof Operation && ((Operation<?>) predicate).getOperator() == Ops.AND) {
+            for (Expression<?> arg : ((Operation<?>) predicate).getArgs()) {
+                connectConjuncts(roots, (Predicate) arg);
+            }
+            return;
+        }
+        roots.connect(rootsOf(predicate));
+    }
+
+    /**
+     * join(member.team, team) 의 대상은 alias(member.team, team) 이므로 별칭(team)을 기준으로 한다
+     */
+    private static Path<?> aliasRoot(Expression<?> target) {
+        if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+            target = ((Operation<?>) target).getArg(1);
+        }
+        return target instanceof Path ? ((Path<?>) target).getRoot() : null;
+    }
+
+    private static Set<Path<?>> rootsOf(Expression<?> expression) {
+        Set<Path<?>> roots = new LinkedHashSet<>();
+        collectRoots(expression, roots);
+        return roots;
+    }
+
+    /**
+     * 서브쿼리는 자체 from 절을 가지므로 탐색하지 않는다
+     */
+    private static void collectRoots(Object expression, Set<Path<?>> roots) {
+        if (expression instanceof Path) {
+            roots.add(((Path<?>) expression).getRoot());
+        } else if (expression instanceof Operation) {
+            for (Expression<?> arg : ((Operation<?>) expression).getArgs()) {
+                collectRoots(arg, roots);
+            }
+        } else if (expression instanceof TemplateExpression) {
+            for (Object arg : ((TemplateExpression<?>) expression).getArgs()) {
+                collectRoots(arg, roots);
+            }
+        } else if (expression instanceof FactoryExpression) {
+            for (Expression<?> arg : ((FactoryExpression<?>) expression).getArgs()) {
+                collectRoots(arg, roots);
+            }
+        }
+    }
+
+    private static final class UnionFind {
+
+        private final Map<Path<?>, Path<?>> parent = new HashMap<>();
+
+        void connect(Set<Path<?>> paths) {
+            Path<?> first = null;
+            for (Path<?> path : paths) {
+                if (first == null) {
+                    first = find(path);
+                } else {
+                    parent.put(find(path), first);
+                }
+            }
+        }
+
+        boolean connected(Path<?> a, Path<?> b) {
+            return find(a).equals(find(b));
+        }
+
+        private Path<?> find(Path<?> path) {
+            Path<?> p = parent.computeIfAbsent(path, k -> k);
+            if (p.equals(path)) {
+                return path;
+            }
+            Path<?> root = find(p);
+            parent.put(path, root);
+            return root;
+        }
+    }
+}
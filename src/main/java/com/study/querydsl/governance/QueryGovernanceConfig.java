@@ -0,0 +1,24 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(QueryGovernanceProperties.class)
+public class QueryGovernanceConfig {
+
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(EntityManager em, EntityManagerFactory entityManagerFactory, DataSource dataSource,
+                                           QueryGovernanceProperties properties) {
+        if (!properties.isEnabled()) {
+            return new JPAQueryFactory(em);
+        }
+        return new GovernedJPAQueryFactory(em, new QueryGovernor(properties, new H2ExplainRowEstimator(entityManagerFactory, dataSource)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.study.querydsl.governance;
+
+/**
+ * 통제 정책에 의해 거부된 쿼리
+ */
+public class QueryGovernanceException extends RuntimeException {
+
+    public QueryGovernanceException(String message) {
+        super(message);
+    }
+}
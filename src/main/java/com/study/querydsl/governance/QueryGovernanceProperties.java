@@ -0,0 +1,72 @@
+package com.study.querydsl.governance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Querydsl 조회 쿼리 통제 설정 (querydsl.governance.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "querydsl.governance")
+public class QueryGovernanceProperties {
+
+    /**
+     * false 인 경우 통제 없이 기본 JPAQueryFactory 를 사용한다
+     */
+    private boolean enabled = true;
+
+    /**
+     * limit 이 없거나 max-results 보다 큰 조회의 최대 조회 건수
+     */
+    private int maxResults = 1000;
+
+    /**
+     * javax.persistence.query.timeout 기본값
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+
+    /**
+     * limit 이 없거나 max-results 를 넘는 조회 처리 방식
+     */
+    private Action unboundedAction = Action.DEGRADE;
+
+    /**
+     * 조인 조건이 없는 조인(카테시안 곱) 처리 방식
+     */
+    private Action cartesianAction = Action.REJECT;
+
+    private Explain explain = new Explain();
+
+    @Getter
+    @Setter
+    public static class Explain {
+
+        /**
+         * H2 EXPLAIN 으로 예상 row 수를 추정한다 (조회마다 DB 왕복 1회 추가)
+         */
+        private boolean enabled = false;
+
+        private long maxEstimatedRows = 100_000;
+
+        private Action action = Action.WARN;
+    }
+
+    public enum Action {
+        /**
+         * 쿼리를 실행하지 않고 QueryGovernanceException 발생
+         */
+        REJECT,
+        /**
+         * max-results 로 조회 건수를 제한하여 실행
+         */
+        DEGRADE,
+        /**
+         * 경고 로그만 남기고 그대로 실행
+         */
+        WARN
+    }
+}
@@ -0,0 +1,170 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.core.types.CollectionExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.MapExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.jpa.JPAQueryMixin;
+import com.study.querydsl.governance.QueryGovernanceProperties.Action;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.persistence.Query;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * 조회 쿼리 통제 정책
+ *  1. 조인 조건 없는 조인(카테시안 곱) 검출
+ *  2. limit 누락 / max-results 초과 검출 -> 거부 또는 max-results 로 제한
+ *     limit 없는 fetchOne 은 단건 조회로 보고 2건까지만 읽는다 (NonUniqueResultException 판단에 충분)
+ *     컬렉션 페치 조인은 DB 에서 limit 을 적용할 수 없으므로(HHH000104 메모리 페이징) 제한 대신 거부한다
+ *  3. javax.persistence.query.timeout 기본값 적용
+ *  4. (선택) H2 EXPLAIN 예상 row 수 검사
+ */
+@Slf4j
+public class QueryGovernor {
+
+    static final String TIMEOUT_HINT = "javax.persistence.query.timeout";
+    private static final int SINGLE_ROW_LIMIT = 2;
+
+    private final QueryGovernanceProperties properties;
+    private final H2ExplainRowEstimator rowEstimator;
+
+    public QueryGovernor(QueryGovernanceProperties properties, H2ExplainRowEstimator rowEstimator) {
+        this.properties = properties;
+        this.rowEstimator = rowEstimator;
+    }
+
+    /**
+     * JPQL 생성 전 검사 - 거부 대상이면 DB 에 쿼리를 보내지 않는다
+     */
+    void inspect(QueryMetadata metadata) {
+        List<Expression<?>> unconnected = JoinConditionInspector.findUnconnectedJoins(metadata);
+        if (!unconnected.isEmpty()) {
+            String message = "join without join condition (cartesian product): " + unconnected;
+            if (properties.getCartesianAction() == Action.REJECT) {
+                throw new QueryGovernanceException(message);
+            }
+            log.warn("[governance] {}", message);
+        }
+    }
+
+    /**
+     * 생성된 Query 에 timeout / 최대 조회 건수 적용
+     *
+     * @param singleRow fetchOne 으로 실행되는 쿼리인지 여부
+     * @return 조회 건수를 max-results 로 제한했다면 true
+     */
+    boolean apply(Query query, QueryMetadata metadata, boolean forCount, boolean singleRow) {
+        if (!query.getHints().containsKey(TIMEOUT_HINT)) {
+            query.setHint(TIMEOUT_HINT, (int) properties.getTimeout().toMillis());
+        }
+        if (forCount) {
+            return false;
+        }
+
+        boolean degraded = false;
+        boolean collectionFetchJoin = hasCollectionFetchJoin(metadata);
+        Long limit = modifiersLimit(metadata.getModifiers());
+        int maxResults = properties.getMaxResults();
+        if (singleRow && limit == null) {
+            if (!collectionFetchJoin) {
+                query.setMaxResults(SINGLE_ROW_LIMIT);
+            }
+        } else if ((limit == null || limit > maxResults) && !isSingleRowAggregate(metadata)) {
+            String message = (limit == null ? "query without limit" : "limit " + limit + " exceeds max-results " + maxResults)
+                    + ": " + query.unwrap(org.hibernate.query.Query.class).getQueryString();
+            switch (properties.getUnboundedAction()) {
+                case REJECT:
+                    throw new QueryGovernanceException(message);
+                case DEGRADE:
+                    rejectInMemoryPaging(collectionFetchJoin, message);
+                    query.setMaxResults(maxResults);
+                    degraded = true;
+                    log.debug("[governance] {} -> max-results {}", message, maxResults);
+                    break;
+                default:
+                    log.warn("[governance] {}", message);
+            }
+        } else if (limit != null && collectionFetchJoin) {
+            log.warn("[governance] collection fetch join with limit is paged in memory: {}",
+                    query.unwrap(org.hibernate.query.Query.class).getQueryString());
+        }
+
+        QueryGovernanceProperties.Explain explain = properties.getExplain();
+        if (explain.isEnabled()) {
+            OptionalLong estimated = rowEstimator.estimate(query);
+            if (estimated.isPresent() && estimated.getAsLong() > explain.getMaxEstimatedRows()) {
+                String message = "estimated rows " + estimated.getAsLong() + " exceeds " + explain.getMaxEstimatedRows();
+                switch (explain.getAction()) {
+                    case REJECT:
+                        throw new QueryGovernanceException(message);
+                    case DEGRADE:
+                        rejectInMemoryPaging(collectionFetchJoin, message);
+                        query.setMaxResults(Math.min(query.getMaxResults(), maxResults));
+                        degraded = true;
+                        // fall through
+                    default:
+                        log.warn("[governance] {}", message);
+                }
+            }
+        }
+        return degraded;
+    }
+
+    int maxResults() {
+        return properties.getMaxResults();
+    }
+
+    private static void rejectInMemoryPaging(boolean collectionFetchJoin, String message) {
+        if (collectionFetchJoin) {
+            throw new QueryGovernanceException(message + " (collection fetch join cannot be limited in the database)");
+        }
+    }
+
+    /**
+     * join(team.members, member).fetchJoin() 처럼 컬렉션 연관관계를 페치 조인하는지 확인한다
+     */
+    private static boolean hasCollectionFetchJoin(QueryMetadata metadata) {
+        for (JoinExpression join : metadata.getJoins()) {
+            if (!join.hasFlag(JPAQueryMixin.FETCH)) {
+                continue;
+            }
+            Expression<?> target = join.getTarget();
+            if (target instanceof Operation && ((Operation<?>) target).getOperator() == Ops.ALIAS) {
+                target = ((Operation<?>) target).getArg(0);
+            }
+            if (target instanceof CollectionExpression || target instanceof MapExpression) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long modifiersLimit(QueryModifiers modifiers) {
+        return modifiers == null ? null : modifiers.getLimit();
+    }
+
+    /**
+     * group by 없이 집계 함수만 조회하는 경우 결과는 항상 1건이다
+     */
+    private static boolean isSingleRowAggregate(QueryMetadata metadata) {
+        Expression<?> projection = metadata.getProjection();
+        if (projection == null || !metadata.getGroupBy().isEmpty()) {
+            return false;
+        }
+        if (projection instanceof FactoryExpression) {
+            return ((FactoryExpression<?>) projection).getArgs().stream().allMatch(QueryGovernor::isAggregate);
+        }
+        return isAggregate(projection);
+    }
+
+    private static boolean isAggregate(Expression<?> expression) {
+        return expression instanceof Operation && ((Operation<?>) expression).getOperator() instanceof Ops.AggOps;
+    }
+}
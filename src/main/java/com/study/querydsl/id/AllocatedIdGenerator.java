@@ -0,0 +1,74 @@
+package com.study.querydsl.id;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 엔티티별 ID 생성기
+ *  - 기본: 엔티티 전용 시퀀스 + pooled-lo 블록 (블록 내 할당은 {@link PooledLoIdAllocator} 로 lock-free)
+ *  - app.id.time-ordered=true: {@link TimeOrderedIdGenerator} 로 DB 조회 없이 생성
+ *
+ * <pre>
+ * &#64;GeneratedValue(generator = "member_id_generator")
+ * &#64;GenericGenerator(name = "member_id_generator", strategy = AllocatedIdGenerator.STRATEGY,
+ *         parameters = &#64;Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
+ * </pre>
+ */
+public class AllocatedIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "com.study.querydsl.id.AllocatedIdGenerator";
+
+    private Class<?> returnClass;
+    private PooledLoIdAllocator allocator;
+    private TimeOrderedIdGenerator timeOrdered;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        int defaultBlockSize = ConfigurationHelper.getInt(IdAllocationSettings.BLOCK_SIZE, settings, IdAllocationSettings.DEFAULT_BLOCK_SIZE);
+        int blockSize = ConfigurationHelper.getInt(IdAllocationSettings.BLOCK_SIZE_PARAM, params, defaultBlockSize);
+
+        // 시퀀스 DDL(increment by)과 값 해석을 pooled-lo 와 동일하게 맞춘다
+        params.setProperty(INCREMENT_PARAM, String.valueOf(blockSize));
+        params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+        super.configure(type, params, serviceRegistry);
+
+        this.returnClass = type.getReturnedClass();
+        this.allocator = new PooledLoIdAllocator(blockSize);
+
+        if (ConfigurationHelper.getBoolean(IdAllocationSettings.TIME_ORDERED, settings, false)) {
+            if (!Long.class.equals(returnClass)) {
+                throw new MappingException("time-ordered id requires a Long identifier: " + params.getProperty(ENTITY_NAME));
+            }
+            this.timeOrdered = new TimeOrderedIdGenerator(ConfigurationHelper.getInt(IdAllocationSettings.NODE_ID, settings, 0));
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        if (timeOrdered != null) {
+            return timeOrdered.nextId();
+        }
+
+        long id = allocator.next(() -> {
+            AccessCallback callback = getDatabaseStructure().buildCallback(session);
+            return callback.getNextValue().makeValue().longValue();
+        });
+        return (Serializable) IdentifierGeneratorHelper.getIntegralDataTypeHolder(returnClass)
+                .initialize(id)
+                .makeValue();
+    }
+}
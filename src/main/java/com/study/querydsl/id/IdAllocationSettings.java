@@ -0,0 +1,32 @@
+package com.study.querydsl.id;
+
+/**
+ * ID 할당 관련 Hibernate 설정 키 (spring.jpa.properties.* 로 지정)
+ */
+public final class IdAllocationSettings {
+
+    /**
+     * 엔티티별 pooled-lo 블록 크기 (시퀀스 increment by)
+     */
+    public static final String BLOCK_SIZE = "app.id.block-size";
+
+    /**
+     * true 인 경우 시퀀스 대신 시간 순서 64bit ID를 사용한다
+     */
+    public static final String TIME_ORDERED = "app.id.time-ordered";
+
+    /**
+     * 시간 순서 ID의 node 번호 (0 ~ 1023), 인스턴스마다 달라야 한다
+     */
+    public static final String NODE_ID = "app.id.node-id";
+
+    /**
+     * @GenericGenerator parameter - 엔티티별 블록 크기 재정의
+     */
+    public static final String BLOCK_SIZE_PARAM = "block_size";
+
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private IdAllocationSettings() {
+    }
+}
@@ -0,0 +1,29 @@
+package com.study.querydsl.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * pooled-lo 블록 [lo, lo + size)
+ *  - 블록 안에서는 AtomicLong 증가만으로 ID를 나눠주므로 락이 필요 없다
+ */
+final class IdBlock {
+
+    static final long EXHAUSTED = Long.MIN_VALUE;
+    static final IdBlock EMPTY = new IdBlock(0, 0);
+
+    private final long hi;
+    private final AtomicLong cursor;
+
+    IdBlock(long lo, int size) {
+        this.hi = lo + size;
+        this.cursor = new AtomicLong(lo);
+    }
+
+    /**
+     * @return 다음 ID, 블록을 모두 사용했다면 {@link #EXHAUSTED}
+     */
+    long tryNext() {
+        long id = cursor.getAndIncrement();
+        return id < hi ? id : EXHAUSTED;
+    }
+}
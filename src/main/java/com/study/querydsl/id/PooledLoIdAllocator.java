@@ -0,0 +1,46 @@
+package com.study.querydsl.id;
+
+import java.util.function.LongSupplier;
+
+/**
+ * pooled-lo 방식 ID 할당기
+ *  - 시퀀스 값 v 를 블록의 시작값(lo)으로 보고 [v, v + blockSize) 범위를 메모리에서 나눠준다
+ *  - 블록 내 할당은 lock-free, 블록이 소진된 경우에만 한 스레드가 시퀀스를 조회한다
+ *  - Hibernate 기본 PooledLoOptimizer 는 generate() 전체가 synchronized 이다
+ */
+public final class PooledLoIdAllocator {
+
+    private final int blockSize;
+    private final Object refillLock = new Object();
+    private volatile IdBlock current = IdBlock.EMPTY;
+
+    public PooledLoIdAllocator(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @param blockSource 새 블록의 시작값(lo)을 반환한다 (ex. 시퀀스 next value)
+     */
+    public long next(LongSupplier blockSource) {
+        while (true) {
+            IdBlock block = current;
+            long id = block.tryNext();
+            if (id != IdBlock.EXHAUSTED) {
+                return id;
+            }
+            synchronized (refillLock) {
+                // 다른 스레드가 이미 블록을 교체했다면 그 블록에서 다시 시도한다
+                if (current == block) {
+                    current = new IdBlock(blockSource.getAsLong(), blockSize);
+                }
+            }
+        }
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
@@ -0,0 +1,70 @@
+package com.study.querydsl.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 순서 64bit ID 생성기 (DB 조회 없음)
+ *  - | 41bit: epoch 이후 millis | 10bit: node | 12bit: sequence |
+ *  - 같은 millis 안에서 sequence 가 넘치거나 시계가 뒤로 가면 다음 millis 를 빌려 쓴다 (단조 증가 보장)
+ */
+public final class TimeOrderedIdGenerator {
+
+    /**
+     * 2022-01-01T00:00:00Z
+     */
+    public static final long EPOCH_MILLIS = 1640995200000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    /**
+     * (millis << SEQUENCE_BITS) | sequence
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long prev = state.get();
+            long prevMillis = prev >>> SEQUENCE_BITS;
+            long now = clock.getAsLong();
+
+            long next;
+            if (now > prevMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((prev & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = prev + 1;
+            } else {
+                next = (prevMillis + 1) << SEQUENCE_BITS;
+            }
+
+            if (state.compareAndSet(prev, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return ((millis - EPOCH_MILLIS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static long extractMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+}
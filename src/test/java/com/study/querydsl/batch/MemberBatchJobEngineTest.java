@@ -0,0 +1,250 @@
+package com.study.querydsl.batch;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import com.study.querydsl.cache.MemberSnapshot;
+import com.study.querydsl.cache.OffHeapMemberCache;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.querydsl.jpa.JPAExpressions.selectFrom;
+import static com.study.querydsl.batch.QBatchJob.batchJob;
+import static com.study.querydsl.batch.QBatchJobChunk.batchJobChunk;
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * chunk 마다 별도 트랜잭션이 커밋되므로 테스트 트랜잭션(@Transactional)을 사용하지 않는다
+ */
+@SpringBootTest
+@DisplayName("Member 배치 작업 테스트")
+class MemberBatchJobEngineTest {
+
+    private static final String PREFIX = "batch-";
+    private static final int MEMBERS = 50;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberBatchJobEngine engine;
+
+    @Autowired
+    OffHeapMemberCache memberCache;
+
+    TransactionTemplate tx;
+    String jobName;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        jobName = "increase-age-" + UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member(PREFIX + i, i));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(batchJobChunk)
+                        .where(batchJobChunk.job.in(selectFrom(batchJob).where(batchJob.name.eq(jobName))))
+                        .execute();
+            queryFactory.delete(batchJob).where(batchJob.name.eq(jobName)).execute();
+            queryFactory.delete(member).where(member.userName.startsWith(PREFIX)).execute();
+            queryFactory.delete(team).where(team.name.startsWith(PREFIX)).execute();
+        });
+    }
+
+    @Test
+    @DisplayName("chunk 단위 병렬 처리 후 job 완료")
+    public void runJob() throws Exception {
+        BatchJobResult result = engine.run(jobName, increaseAgeOfTestMembers(), options());
+
+        assertThat(result.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.getProcessedRows()).isEqualTo(MEMBERS);
+        assertThat(result.getFailedChunks()).isZero();
+        assertThat(ages().stream().mapToInt(Integer::intValue).sum()).isEqualTo(sumOfAges() + MEMBERS);
+
+        // 완료된 작업은 다시 실행해도 반영되지 않는다
+        BatchJobResult rerun = engine.run(jobName, increaseAgeOfTestMembers(), options());
+        assertThat(rerun.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(rerun.getProcessedRows()).isZero();
+    }
+
+    @Test
+    @DisplayName("실패한 chunk 는 재실행 시 이어서 처리하고, 완료된 chunk 는 다시 반영하지 않는다")
+    public void resumeFailedJob() throws Exception {
+        AtomicBoolean failOnce = new AtomicBoolean(true);
+        MemberChunkTask increaseAge = increaseAgeOfTestMembers();
+        MemberChunkTask flaky = (em, fromId, toId) -> {
+            long rows = increaseAge.process(em, fromId, toId);
+            if (rows > 0 && failOnce.compareAndSet(true, false)) {
+                throw new IllegalStateException("chunk failure"); // 롤백
+            }
+            return rows;
+        };
+
+        BatchJobResult failed = engine.run(jobName, flaky, options());
+        assertThat(failed.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(failed.getFailedChunks()).isEqualTo(1);
+
+        BatchJobResult resumed = engine.run(jobName, flaky, options());
+        assertThat(resumed.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(resumed.getCompletedChunks()).isEqualTo(1);
+        assertThat(failed.getProcessedRows() + resumed.getProcessedRows()).isEqualTo(MEMBERS);
+        assertThat(ages().stream().mapToInt(Integer::intValue).sum()).isEqualTo(sumOfAges() + MEMBERS);
+    }
+
+    @Test
+    @DisplayName("초당 처리 row 수 제한")
+    public void throttle() throws Exception {
+        BatchJobOptions options = BatchJobOptions.builder()
+                .chunkSize(10)
+                .parallelism(4)
+                .rowsPerSecond(200)
+                .build();
+
+        BatchJobResult result = engine.run(jobName, increaseAgeOfTestMembers(), options);
+
+        assertThat(result.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // 마지막 chunk 는 앞선 chunk 들의 row 수 만큼 기다리므로 최소 (전체 row - 마지막 chunk) / 200 초가 걸린다
+        assertThat(result.getElapsed().toMillis()).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("id 가 듬성듬성해도 chunk 는 실제 row 수 기준으로 나뉜다")
+    public void sparseIds() throws Exception {
+        int sparseMembers = 5;
+        long sparseBaseId = 1L << 40;
+        long spacing = 1_000_000_000L;
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < sparseMembers; i++) {
+                em.createNativeQuery("insert into member (member_id, user_name, age) values (?, ?, ?)")
+                  .setParameter(1, sparseBaseId + i * spacing)
+                  .setParameter(2, PREFIX + "sparse-" + i)
+                  .setParameter(3, 0)
+                  .executeUpdate();
+            }
+        });
+        long lastSparseId = sparseBaseId + (sparseMembers - 1) * spacing;
+        memberCache.put(new MemberSnapshot(lastSparseId, PREFIX + "sparse", 0, null), memberCache.stamp());
+        long totalMembers = tx.execute(status -> new JPAQueryFactory(em)
+                .select(member.count())
+                .from(member)
+                .fetchOne());
+
+        BatchJobResult result = engine.run(jobName, increaseAgeOfTestMembers(), options());
+
+        assertThat(result.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.getProcessedRows()).isEqualTo(MEMBERS + sparseMembers);
+        // id 구간 폭(수조)이 아니라 row 수로 chunk 개수가 정해진다
+        assertThat((long) result.getCompletedChunks()).isEqualTo((totalMembers + 9) / 10);
+        assertThat(memberCache.get(lastSparseId)).isNull();
+    }
+
+    @Test
+    @DisplayName("팀 이동 작업 - 원래 팀 회원만 이동하고 캐시를 무효화")
+    public void reassignTeam() throws Exception {
+        int moved = 20;
+        Team[] teams = tx.execute(status -> {
+            Team from = new Team(PREFIX + "from");
+            Team to = new Team(PREFIX + "to");
+            em.persist(from);
+            em.persist(to);
+            for (int i = 0; i < moved; i++) {
+                em.persist(new Member(PREFIX + "team-" + i, i, from));
+            }
+            return new Team[]{from, to};
+        });
+        Long fromTeamId = teams[0].getId();
+        Long toTeamId = teams[1].getId();
+        Long cachedId = tx.execute(status -> new JPAQueryFactory(em)
+                .select(member.id)
+                .from(member)
+                .where(member.userName.eq(PREFIX + "team-0"))
+                .fetchOne());
+        memberCache.put(new MemberSnapshot(cachedId, PREFIX + "team-0", 0, fromTeamId), memberCache.stamp());
+
+        BatchJobResult result = engine.run(jobName, MemberChunkTasks.reassignTeam(fromTeamId, toTeamId), options());
+
+        assertThat(result.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.getProcessedRows()).isEqualTo(moved);
+        assertThat(countMembersOfTeam(fromTeamId)).isZero();
+        assertThat(countMembersOfTeam(toTeamId)).isEqualTo(moved);
+        assertThat(memberCache.get(cachedId)).isNull();
+    }
+
+    @Test
+    @DisplayName("chunkSize / parallelism 이 1 미만이면 옵션 생성 시 거부")
+    public void invalidOptions() throws Exception {
+        assertThatThrownBy(() -> BatchJobOptions.builder().chunkSize(0).build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("chunkSize");
+        assertThatThrownBy(() -> BatchJobOptions.builder().chunkSize(-10).build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BatchJobOptions.builder().parallelism(0).build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("parallelism");
+        assertThat(BatchJobOptions.builder().build().getChunkSize()).isEqualTo(1000);
+    }
+
+    /**
+     * 다른 테스트가 커밋한 회원에 영향을 주지 않도록 테스트 회원만 변경한다
+     */
+    private MemberChunkTask increaseAgeOfTestMembers() {
+        return (em, fromId, toId) -> new JPAUpdateClause(em, member)
+                .set(member.age, member.age.add(1))
+                .where(member.id.goe(fromId), member.id.lt(toId), member.userName.startsWith(PREFIX))
+                .execute();
+    }
+
+    private BatchJobOptions options() {
+        return BatchJobOptions.builder()
+                .chunkSize(10)
+                .parallelism(4)
+                .build();
+    }
+
+    private long countMembersOfTeam(Long teamId) {
+        return tx.execute(status -> new JPAQueryFactory(em)
+                .select(member.count())
+                .from(member)
+                .where(member.team.id.eq(teamId))
+                .fetchOne());
+    }
+
+    private List<Integer> ages() {
+        return tx.execute(status -> new JPAQueryFactory(em)
+                .select(member.age)
+                .from(member)
+                .where(member.userName.startsWith(PREFIX))
+                .fetch());
+    }
+
+    private static int sumOfAges() {
+        return MEMBERS * (MEMBERS - 1) / 2;
+    }
+}
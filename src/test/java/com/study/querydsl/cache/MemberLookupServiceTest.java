@@ -0,0 +1,164 @@
+package com.study.querydsl.cache;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * querydsl.governance.max-results 보다 많은 이름 조회 결과도 잘리지 않아야 한다
+ * 쓰기 트랜잭션 안/밖의 캐시 적재를 구분하기 위해 테스트 트랜잭션(@Transactional)을 사용하지 않는다
+ * 별도 컨텍스트가 시퀀스를 다시 만들지 않도록 ddl-auto=update 로 둔다 - 데이터는 PREFIX 로 구분하여 지운다
+ */
+@SpringBootTest(properties = {
+        "querydsl.governance.max-results=1",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@DisplayName("Member 조회 캐시 테스트")
+class MemberLookupServiceTest {
+
+    private static final String PREFIX = "lookup-";
+    private static final String KIM = PREFIX + "김영민";
+    private static final String WON = PREFIX + "원영식";
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MemberLookupService memberLookupService;
+
+    @Autowired
+    OffHeapMemberCache cache;
+
+    TransactionTemplate tx;
+    Long teamId;
+    Long member1Id;
+
+    @BeforeEach
+    public void before() {
+        cache.clear();
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team(PREFIX + "데이터 플랫폼 팀");
+            em.persist(teamA);
+            Member member1 = new Member(KIM, 33, teamA);
+            em.persist(member1);
+            em.persist(new Member(WON, 30, teamA));
+            teamId = teamA.getId();
+            member1Id = member1.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+            queryFactory.delete(member).where(member.userName.startsWith(PREFIX)).execute();
+            queryFactory.delete(team).where(team.id.eq(teamId)).execute();
+        });
+        cache.clear();
+    }
+
+    @Test
+    @DisplayName("id 조회 - 첫 조회 후 캐시에서 응답")
+    public void findById() throws Exception {
+        MemberSnapshot found = memberLookupService.findById(member1Id).orElseThrow();
+
+        assertThat(found.getUserName()).isEqualTo(KIM);
+        assertThat(found.getTeamId()).isEqualTo(teamId);
+        assertThat(cache.get(member1Id)).isEqualTo(found);
+    }
+
+    @Test
+    @DisplayName("이름 조회 - 첫 조회 후 캐시에서 응답 (읽기 전용 트랜잭션 포함)")
+    public void findByUserName() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        List<MemberSnapshot> found = readOnly.execute(status -> memberLookupService.findByUserName(KIM));
+
+        assertThat(found).extracting("age").containsExactly(33);
+        assertThat(cache.getByUserName(KIM)).extracting("age").containsExactly(33);
+    }
+
+    @Test
+    @DisplayName("이름 조회 - 조회 건수 제한(max-results)보다 많은 결과도 전체를 캐시")
+    public void findByUserNameNotTruncatedByGovernance() throws Exception {
+        tx.executeWithoutResult(status -> em.persist(new Member(KIM, 40)));
+
+        assertThat(memberLookupService.findByUserName(KIM)).extracting("age").containsExactly(33, 40);
+        assertThat(cache.getByUserName(KIM)).extracting("age").containsExactlyInAnyOrder(33, 40);
+    }
+
+    @Test
+    @DisplayName("엔티티 변경 시 엔티티 리스너가 캐시를 무효화, 커밋 전 변경은 캐시에 적재하지 않는다")
+    public void invalidateOnUpdate() throws Exception {
+        memberLookupService.findById(member1Id);
+        memberLookupService.findByUserName(KIM);
+
+        tx.executeWithoutResult(status -> {
+            em.find(Member.class, member1Id).setUserName(KIM + "2");
+            em.flush();
+
+            assertThat(cache.get(member1Id)).isNull();
+            assertThat(cache.getByUserName(KIM)).isNull();
+            assertThat(memberLookupService.findById(member1Id).orElseThrow().getUserName()).isEqualTo(KIM + "2");
+            assertThat(cache.get(member1Id)).isNull();
+        });
+
+        assertThat(memberLookupService.findById(member1Id).orElseThrow().getUserName()).isEqualTo(KIM + "2");
+        assertThat(cache.get(member1Id).getUserName()).isEqualTo(KIM + "2");
+    }
+
+    @Test
+    @DisplayName("롤백된 변경은 캐시에 남지 않는다")
+    public void rolledBackUpdateNotCached() throws Exception {
+        tx.executeWithoutResult(status -> {
+            em.find(Member.class, member1Id).setUserName(KIM + "2");
+            em.flush();
+            memberLookupService.findById(member1Id);
+            memberLookupService.findByUserName(KIM + "2");
+            // 다른 스레드에서 미커밋 값을 읽을 수 없어야 한다
+            assertThat(cache.get(member1Id)).isNull();
+            assertThat(cache.getByUserName(KIM + "2")).isNull();
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.get(member1Id)).isNull();
+        assertThat(cache.getByUserName(KIM + "2")).isNull();
+        assertThat(memberLookupService.findById(member1Id).orElseThrow().getUserName()).isEqualTo(KIM);
+    }
+
+    @Test
+    @DisplayName("같은 이름의 회원이 추가되면 이름 조회 캐시를 무효화")
+    public void invalidateOnPersist() throws Exception {
+        memberLookupService.findByUserName(WON);
+
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member(WON, 25));
+            em.flush();
+
+            assertThat(cache.getByUserName(WON)).isNull();
+        });
+
+        assertThat(memberLookupService.findByUserName(WON)).extracting("age").containsExactly(30, 25);
+    }
+}
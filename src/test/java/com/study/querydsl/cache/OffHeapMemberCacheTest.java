@@ -0,0 +1,153 @@
+package com.study.querydsl.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("off-heap Member 캐시 테스트")
+class OffHeapMemberCacheTest {
+
+    @Test
+    @DisplayName("id 조회 - 저장한 값을 그대로 복원")
+    public void putAndGet() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+
+        cache.put(new MemberSnapshot(1L, "김영민", 33, 100L), cache.stamp());
+        cache.put(new MemberSnapshot(2L, null, 20, null), cache.stamp());
+
+        assertThat(cache.get(1L)).isEqualTo(new MemberSnapshot(1L, "김영민", 33, 100L));
+        assertThat(cache.get(2L)).isEqualTo(new MemberSnapshot(2L, null, 20, null));
+        assertThat(cache.get(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("이름 조회 - complete 로 적재된 이름만 응답")
+    public void getByUserName() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+        cache.put(new MemberSnapshot(1L, "김영민", 33, 100L), cache.stamp());
+
+        assertThat(cache.getByUserName("김영민")).isNull(); // id 조회로만 적재됨
+
+        cache.putAllByUserName("김영민", List.of(
+                new MemberSnapshot(1L, "김영민", 33, 100L),
+                new MemberSnapshot(5L, "김영민", 40, null)), cache.stamp());
+
+        assertThat(cache.getByUserName("김영민"))
+                .extracting("id")
+                .containsExactlyInAnyOrder(1L, 5L);
+
+        cache.invalidateUserName("김영민");
+        assertThat(cache.getByUserName("김영민")).isNull();
+        assertThat(cache.get(5L)).isNotNull(); // 레코드는 유지
+    }
+
+    @Test
+    @DisplayName("무효화 - 레코드 삭제 시 이름 체인에서도 제거")
+    public void invalidate() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+        cache.putAllByUserName("원영식", List.of(
+                new MemberSnapshot(1L, "원영식", 30, 100L),
+                new MemberSnapshot(2L, "원영식", 31, 100L),
+                new MemberSnapshot(3L, "원영식", 32, 100L)), cache.stamp());
+
+        cache.invalidate(2L);
+
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.getByUserName("원영식")).isNull(); // 목록이 바뀌었으므로 complete 해제
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.putAllByUserName("원영식", List.of(
+                new MemberSnapshot(1L, "원영식", 30, 100L),
+                new MemberSnapshot(3L, "원영식", 32, 100L)), cache.stamp());
+        assertThat(cache.getByUserName("원영식")).extracting("id").containsExactlyInAnyOrder(1L, 3L);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("DB 조회 중 해당 id / 이름이 무효화되었다면 조회 결과를 적재하지 않는다")
+    public void dropPutAfterConcurrentInvalidation() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+
+        // 조회 스레드: stamp 를 읽고 변경 전 값을 조회
+        long stamp = cache.stamp();
+        MemberSnapshot stale = new MemberSnapshot(1L, "김영민", 33, 100L);
+        // 변경 스레드: 커밋 후 무효화 (아직 캐시에 없는 id)
+        cache.invalidate(1L);
+        cache.invalidateUserName("원영식");
+
+        assertThat(cache.put(stale, stamp)).isFalse();
+        cache.putAllByUserName("김영민", List.of(stale), stamp); // 이름은 그대로, 회원이 무효화됨
+        cache.putAllByUserName("원영식", List.of(new MemberSnapshot(2L, "원영식", 30, 100L)), stamp);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.getByUserName("김영민")).isNull();
+        assertThat(cache.getByUserName("원영식")).isNull();
+
+        // 무효화되지 않은 id 는 같은 stamp 로도 적재된다
+        assertThat(cache.put(new MemberSnapshot(3L, "박진우", 28, 100L), stamp)).isTrue();
+        // 무효화 이후에 읽은 stamp 로는 적재된다
+        assertThat(cache.put(new MemberSnapshot(1L, "김영민2", 33, 100L), cache.stamp())).isTrue();
+        assertThat(cache.get(1L).getUserName()).isEqualTo("김영민2");
+    }
+
+    @Test
+    @DisplayName("clear 이전 stamp 로는 적재하지 않는다")
+    public void dropPutAfterClear() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+        long stamp = cache.stamp();
+
+        cache.clear();
+
+        assertThat(cache.put(new MemberSnapshot(1L, "김영민", 33, 100L), stamp)).isFalse();
+    }
+
+    @Test
+    @DisplayName("CLOCK 교체 - 최근 참조된 레코드는 한 번 더 기회를 얻는다")
+    public void clockEviction() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(3, 2);
+        cache.put(new MemberSnapshot(1L, "a", 1, null), cache.stamp());
+        cache.put(new MemberSnapshot(2L, "b", 2, null), cache.stamp());
+        cache.put(new MemberSnapshot(3L, "c", 3, null), cache.stamp());
+
+        // 첫 번째 순회에서 모든 참조 비트가 꺼지고 1번이 교체된다
+        cache.put(new MemberSnapshot(4L, "d", 4, null), cache.stamp());
+        assertThat(cache.get(1L)).isNull();
+
+        cache.get(2L); // 참조 비트 설정
+        cache.put(new MemberSnapshot(5L, "e", 5, null), cache.stamp());
+
+        assertThat(cache.get(2L)).isNotNull();
+        assertThat(cache.get(3L)).isNull();
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("슬롯에 들어가지 않는 긴 이름은 캐시하지 않는다")
+    public void tooLongUserName() throws Exception {
+        OffHeapMemberCache cache = new OffHeapMemberCache(10, 4);
+        String longName = "가".repeat(MemberRecordCodec.MAX_NAME_BYTES);
+
+        assertThat(cache.put(new MemberSnapshot(1L, longName, 1, null), cache.stamp())).isFalse();
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("인덱스 삭제 후에도 충돌 체인의 다른 키를 찾을 수 있다")
+    public void indexBackwardShift() throws Exception {
+        LongIntHashIndex index = new LongIntHashIndex(1000);
+        for (int i = 0; i < 1000; i++) {
+            index.put(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove(i);
+        }
+
+        assertThat(index.size()).isEqualTo(500);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.get(i)).isEqualTo(i % 2 == 0 ? LongIntHashIndex.NOT_FOUND : i);
+        }
+    }
+}
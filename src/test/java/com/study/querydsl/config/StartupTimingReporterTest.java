@@ -0,0 +1,118 @@
+package com.study.querydsl.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.DefaultBootstrapContext;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(OutputCaptureExtension.class)
+@DisplayName("기동 시간 리포트 테스트")
+class StartupTimingReporterTest {
+
+    @Test
+    @DisplayName("단계(phase)별 / 빈(bean)별 소요 시간 집계")
+    public void breakdown() throws Exception {
+        BufferingApplicationStartup startup = recordedStartup();
+
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        Map<String, Duration> byPhase = StartupTimingReporter.durationsByPhase(timeline);
+        Map<String, Duration> byBean = StartupTimingReporter.durationsByBean(timeline);
+
+        assertThat(byPhase).containsOnlyKeys("spring.context.refresh", "spring.beans.instantiate");
+        assertThat(byPhase.get("spring.context.refresh")).isGreaterThanOrEqualTo(byPhase.get("spring.beans.instantiate"));
+        assertThat(byBean).containsOnlyKeys("slowBean", "fastBean");
+        assertThat(byBean.get("slowBean")).isGreaterThanOrEqualTo(Duration.ofMillis(40)); // 두 번 생성된 시간의 합
+        assertThat(byBean.get("slowBean")).isGreaterThan(byBean.get("fastBean"));
+    }
+
+    @Test
+    @DisplayName("ApplicationReadyEvent 에서 리포트를 남기고 버퍼를 비운다")
+    public void reportAndDrain(CapturedOutput output) throws Exception {
+        BufferingApplicationStartup startup = recordedStartup();
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setApplicationStartup(startup);
+
+        new StartupTimingReporter(1).onApplicationEvent(
+                new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofMillis(1234)));
+
+        assertThat(output).contains("[startup] time-to-ready = 1234 ms");
+        assertThat(output).contains("spring.context.refresh");
+        assertThat(output).contains("slowBean").doesNotContain("fastBean"); // top 1
+        assertThat(startup.getBufferedTimeline().getEvents()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("첫 요청 처리 후 lazy 빈을 한 번만 리포트하고 이후에는 기록하지 않는다")
+    public void reportFirstRequestOnce(CapturedOutput output) throws Exception {
+        BufferingApplicationStartup startup = recordedStartup();
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setApplicationStartup(startup);
+        StartupTimingReporter reporter = new StartupTimingReporter(5);
+        reporter.onApplicationEvent(
+                new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofMillis(1234)));
+
+        instantiate(startup, "lazyController", 0); // 첫 요청에서 생성
+        reporter.onApplicationEvent(firstRequestHandled());
+        instantiate(startup, "laterBean", 0);
+        reporter.onApplicationEvent(firstRequestHandled());
+
+        assertThat(output).contains("[startup] time-to-first-request = ");
+        assertThat(output).contains("lazyController").contains("GET /hello");
+        assertThat(output.toString().split("time-to-first-request", -1)).hasSize(2); // 한 번만
+        assertThat(startup.getBufferedTimeline().getEvents()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("startup.report.enabled=true 인 경우에만 기동 단계를 기록한다")
+    public void activator() throws Exception {
+        SpringApplication disabled = new SpringApplication();
+        SpringApplication enabled = new SpringApplication();
+
+        fireEnvironmentPrepared(disabled, new MockEnvironment());
+        fireEnvironmentPrepared(enabled, new MockEnvironment().withProperty(StartupReportActivator.ENABLED_PROPERTY, "true"));
+
+        assertThat(disabled.getApplicationStartup()).isNotInstanceOf(BufferingApplicationStartup.class);
+        assertThat(enabled.getApplicationStartup()).isInstanceOf(BufferingApplicationStartup.class);
+    }
+
+    private BufferingApplicationStartup recordedStartup() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        instantiate(startup, "slowBean", 20);
+        instantiate(startup, "slowBean", 20);
+        instantiate(startup, "fastBean", 0);
+        refresh.end();
+        return startup;
+    }
+
+    private void instantiate(BufferingApplicationStartup startup, String beanName, long millis) throws InterruptedException {
+        StartupStep step = startup.start("spring.beans.instantiate").tag("beanName", beanName);
+        Thread.sleep(millis);
+        step.end();
+    }
+
+    private ServletRequestHandledEvent firstRequestHandled() {
+        return new ServletRequestHandledEvent(this, "/hello", "127.0.0.1", "GET", "dispatcherServlet", null, null, 3);
+    }
+
+    private void fireEnvironmentPrepared(SpringApplication application, MockEnvironment environment) {
+        new StartupReportActivator().onApplicationEvent(
+                new ApplicationEnvironmentPreparedEvent(new DefaultBootstrapContext(), application, new String[0], environment));
+    }
+}
@@ -0,0 +1,102 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static com.study.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 트랜잭션 밖에서도 EXPLAIN 추정이 동작하는지 확인하기 위해 테스트 트랜잭션(@Transactional)을 사용하지 않는다
+ * 스키마는 기본 컨텍스트가 만든 것을 그대로 쓴다 (ddl-auto=update)
+ */
+@SpringBootTest(properties = {
+        "querydsl.governance.explain.enabled=true",
+        "querydsl.governance.explain.action=reject",
+        "querydsl.governance.explain.max-estimated-rows=3",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@DisplayName("Querydsl EXPLAIN 예상 row 수 통제 테스트")
+class QueryGovernanceExplainTest {
+
+    private static final String PREFIX = "explain-";
+    private static final int MEMBERS = 5;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    TransactionTemplate tx;
+    Long memberId;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        memberId = tx.execute(status -> {
+            Member first = new Member(PREFIX + 0, 20);
+            em.persist(first);
+            for (int i = 1; i < MEMBERS; i++) {
+                em.persist(new Member(PREFIX + i, 20 + i));
+            }
+            return first.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> new JPAQueryFactory(em)
+                .delete(member)
+                .where(member.userName.startsWith(PREFIX))
+                .execute());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖의 전체 스캔은 거부된다")
+    public void fullScanRejectedOutsideTransaction() throws Exception {
+        assertThatThrownBy(() -> queryFactory
+                .selectFrom(member)
+                .where(member.age.gt(0))
+                .fetch())
+                .isInstanceOf(QueryGovernanceException.class)
+                .hasMessageContaining("estimated rows");
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 전체 스캔은 거부된다")
+    public void fullScanRejectedInsideTransaction() throws Exception {
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> queryFactory
+                .selectFrom(member)
+                .where(member.age.gt(0))
+                .fetch()))
+                .isInstanceOf(QueryGovernanceException.class)
+                .hasMessageContaining("estimated rows");
+    }
+
+    @Test
+    @DisplayName("기본 키 조회는 허용된다")
+    public void primaryKeyLookupAllowed() throws Exception {
+        Member found = queryFactory
+                .selectFrom(member)
+                .where(member.id.eq(memberId))
+                .fetchOne();
+
+        assertThat(found.getUserName()).isEqualTo(PREFIX + 0);
+    }
+}
@@ -0,0 +1,194 @@
+package com.study.querydsl.governance;
+
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
+
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 설정이 다른 별도 컨텍스트 - 스키마를 다시 만들면 기본 컨텍스트가 미리 받아 둔 id 블록이 다시 발급되므로 update 로 둔다
+ */
+@SpringBootTest(properties = {
+        "querydsl.governance.max-results=3",
+        "querydsl.governance.timeout=2s",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Transactional
+@DisplayName("Querydsl 조회 쿼리 통제 테스트")
+class QueryGovernanceTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @BeforeEach
+    public void before() {
+        // 다른 테스트가 커밋한 회원이 남아 있을 수 있다 - 테스트 트랜잭션과 함께 롤백된다
+        queryFactory.delete(member).execute();
+        queryFactory.delete(team).execute();
+
+        Team teamA = new Team("데이터 플랫폼 팀");
+        Team teamB = new Team("인프라 팀");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("김영민", 33, teamA));
+        em.persist(new Member("원영식", 30, teamA));
+        em.persist(new Member("김진엽", 27, teamB));
+        em.persist(new Member("박진우", 28, teamB));
+        em.persist(new Member("임수현", 29, teamB));
+    }
+
+    @Test
+    @DisplayName("limit 없는 조회는 max-results 로 제한된다")
+    public void unboundedFetchDegraded() throws Exception {
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .fetch();
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("max-results 이하의 limit 은 그대로 적용된다")
+    public void boundedFetch() throws Exception {
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .orderBy(member.age.desc())
+                .limit(2)
+                .fetch();
+
+        assertThat(result).extracting("age").containsExactly(33, 30);
+    }
+
+    @Test
+    @DisplayName("count / 집계 조회는 제한하지 않는다")
+    public void countAndAggregateNotLimited() throws Exception {
+        long total = queryFactory
+                .selectFrom(member)
+                .fetchCount();
+        Long count = queryFactory
+                .select(member.count())
+                .from(member)
+                .fetchOne();
+
+        assertThat(total).isEqualTo(5);
+        assertThat(count).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("조인 조건 없는 세타 조인은 거부된다")
+    public void cartesianJoinRejected() throws Exception {
+        assertThatThrownBy(() -> queryFactory
+                .select(member)
+                .from(member, team)
+                .fetch())
+                .isInstanceOf(QueryGovernanceException.class)
+                .hasMessageContaining("cartesian");
+    }
+
+    @Test
+    @DisplayName("where 절 조인 조건이 있는 세타 조인 / 연관관계 조인 / on 조인은 허용된다")
+    public void joinWithConditionAllowed() throws Exception {
+        em.persist(new Member("인프라 팀"));
+
+        List<Member> thetaJoin = queryFactory
+                .select(member)
+                .from(member, team)
+                .where(member.userName.eq(team.name))
+                .fetch();
+        List<Member> associationJoin = queryFactory
+                .selectFrom(member)
+                .join(member.team, team)
+                .where(team.name.eq("데이터 플랫폼 팀"))
+                .fetch();
+        List<Member> onJoin = queryFactory
+                .select(member)
+                .from(member)
+                .join(team).on(member.userName.eq(team.name))
+                .fetch();
+
+        assertThat(thetaJoin).extracting("userName").containsExactly("인프라 팀");
+        assertThat(associationJoin).extracting("userName").containsExactly("김영민", "원영식");
+        assertThat(onJoin).extracting("userName").containsExactly("인프라 팀");
+    }
+
+    @Test
+    @DisplayName("limit 없는 컬렉션 페치 조인은 메모리 페이징 대신 거부된다")
+    public void unboundedCollectionFetchJoinRejected() throws Exception {
+        assertThatThrownBy(() -> queryFactory
+                .selectFrom(team)
+                .join(team.members, member).fetchJoin()
+                .fetch())
+                .isInstanceOf(QueryGovernanceException.class)
+                .hasMessageContaining("collection fetch join");
+    }
+
+    @Test
+    @DisplayName("단건 연관관계 페치 조인은 max-results 로 제한된다")
+    public void unboundedToOneFetchJoinDegraded() throws Exception {
+        List<Member> result = queryFactory
+                .selectFrom(member)
+                .join(member.team, team).fetchJoin()
+                .fetch();
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("unbounded-action=reject 에서도 limit 없는 fetchOne 단건 조회는 허용된다")
+    public void fetchOneAllowedWhenRejectingUnbounded() throws Exception {
+        QueryGovernanceProperties properties = new QueryGovernanceProperties();
+        properties.setUnboundedAction(QueryGovernanceProperties.Action.REJECT);
+        JPAQueryFactory rejecting = new GovernedJPAQueryFactory(em, new QueryGovernor(properties, null));
+        Member kim = rejecting
+                .selectFrom(member)
+                .where(member.userName.eq("김영민"))
+                .fetchOne();
+
+        Member found = rejecting
+                .selectFrom(member)
+                .where(member.id.eq(kim.getId()))
+                .fetchOne();
+
+        assertThat(found.getAge()).isEqualTo(33);
+        assertThatThrownBy(() -> rejecting
+                .selectFrom(member)
+                .where(member.age.gt(0))
+                .fetchOne())
+                .isInstanceOf(NonUniqueResultException.class);
+        assertThatThrownBy(() -> rejecting
+                .selectFrom(member)
+                .fetch())
+                .isInstanceOf(QueryGovernanceException.class);
+    }
+
+    @Test
+    @DisplayName("statement timeout 기본값 적용")
+    public void timeoutHintApplied() throws Exception {
+        Query query = ((GovernedJPAQuery<?>) queryFactory
+                .selectFrom(member)
+                .limit(1))
+                .createQuery();
+
+        assertThat(query.getHints()).containsEntry(QueryGovernor.TIMEOUT_HINT, 2000);
+    }
+}
@@ -0,0 +1,115 @@
+package com.study.querydsl.id;
+
+import com.study.querydsl.entity.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다중 writer 스레드 insert 처리량 측정
+ *  - 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다
+ *  - ex) ./gradlew benchmark -Dbenchmark.writers=32 -Dbenchmark.insertsPerWriter=5000
+ */
+@Tag("benchmark")
+@SpringBootTest
+@DisplayName("ID 할당 insert 처리량 벤치마크")
+class IdAllocationBenchmarkTest {
+
+    private static final String NAME_PREFIX = "bench-";
+
+    private static final int WRITERS = Integer.getInteger("benchmark.writers", 16);
+    private static final int INSERTS_PER_WRITER = Integer.getInteger("benchmark.insertsPerWriter", 2_000);
+    private static final int INSERTS_PER_TX = Integer.getInteger("benchmark.insertsPerTx", 100);
+
+    @PersistenceUnit
+    EntityManagerFactory emf;
+
+    @AfterEach
+    public void cleanUp() {
+        inTransaction(em -> em.createQuery("delete from Member m where m.userName like :prefix")
+                              .setParameter("prefix", NAME_PREFIX + "%")
+                              .executeUpdate());
+    }
+
+    @Test
+    @DisplayName("writer 스레드별 insert 후 초당 insert 수 출력")
+    public void insertThroughput() throws Exception {
+        // warm-up: 시퀀스/커넥션 풀/JIT 준비
+        runWriters(2, INSERTS_PER_TX);
+
+        long startNanos = System.nanoTime();
+        int inserted = runWriters(WRITERS, INSERTS_PER_WRITER);
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        double insertsPerSecond = inserted / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf(">>>> writers = %d, inserts = %d, elapsed = %d ms, inserts/s = %.1f%n",
+                WRITERS, inserted, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), insertsPerSecond);
+
+        Long distinctIds = inTransaction(em -> em.createQuery("select count(distinct m.id) from Member m where m.userName like :prefix", Long.class)
+                                                 .setParameter("prefix", NAME_PREFIX + "%")
+                                                 .getSingleResult());
+        assertThat(distinctIds).isEqualTo(inserted + 2L * INSERTS_PER_TX);
+    }
+
+    private int runWriters(int writers, int insertsPerWriter) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                String name = NAME_PREFIX + w;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int done = 0; done < insertsPerWriter; done += INSERTS_PER_TX) {
+                        int batch = Math.min(INSERTS_PER_TX, insertsPerWriter - done);
+                        inTransaction(em -> {
+                            for (int i = 0; i < batch; i++) {
+                                em.persist(new Member(name, i));
+                            }
+                            return batch;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return writers * insertsPerWriter;
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+        }
+    }
+}
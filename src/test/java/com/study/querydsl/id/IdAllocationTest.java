@@ -0,0 +1,124 @@
+package com.study.querydsl.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ID 할당 테스트")
+class IdAllocationTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 10_000;
+
+    @Test
+    @DisplayName("pooled-lo - 블록 크기만큼 시퀀스 조회 없이 연속된 ID 할당")
+    public void pooledLoSequential() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        AtomicLong sequenceCalls = new AtomicLong();
+        PooledLoIdAllocator allocator = new PooledLoIdAllocator(50);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            ids.add(allocator.next(() -> {
+                sequenceCalls.incrementAndGet();
+                return sequence.getAndAdd(50); // increment by 50
+            }));
+        }
+
+        assertThat(ids.get(0)).isEqualTo(1);
+        assertThat(ids.get(119)).isEqualTo(120);
+        assertThat(sequenceCalls.get()).isEqualTo(3); // [1, 51), [51, 101), [101, 151)
+    }
+
+    @Test
+    @DisplayName("pooled-lo - 여러 스레드에서 중복 없는 ID 할당")
+    public void pooledLoConcurrent() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        PooledLoIdAllocator allocator = new PooledLoIdAllocator(100);
+
+        Set<Long> ids = runConcurrently(() -> allocator.next(() -> sequence.getAndAdd(100)));
+
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+        // 블록이 낭비되지 않았다면 1 ~ N 범위를 빈틈없이 채운다
+        assertThat(ids).allMatch(id -> id >= 1 && id <= THREADS * IDS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("pooled-lo - 블록 크기는 1 이상")
+    public void pooledLoInvalidBlockSize() throws Exception {
+        assertThatThrownBy(() -> new PooledLoIdAllocator(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("시간 순서 ID - 여러 스레드에서 중복 없이 생성")
+    public void timeOrderedConcurrent() throws Exception {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7);
+
+        Set<Long> ids = runConcurrently(generator::nextId);
+
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+        assertThat(ids).allMatch(id -> id > 0);
+    }
+
+    @Test
+    @DisplayName("시간 순서 ID - 같은 millis, 시계 역행에도 단조 증가")
+    public void timeOrderedMonotonic() throws Exception {
+        long[] now = {TimeOrderedIdGenerator.EPOCH_MILLIS + 1_000};
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, () -> now[0]);
+
+        long prev = generator.nextId();
+        for (int i = 0; i < 10_000; i++) { // sequence(4096) 초과 -> 다음 millis 를 빌려 쓴다
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(prev);
+            prev = next;
+        }
+
+        now[0] -= 500; // 시계 역행
+        assertThat(generator.nextId()).isGreaterThan(prev);
+        assertThat(TimeOrderedIdGenerator.extractMillis(prev)).isGreaterThanOrEqualTo(TimeOrderedIdGenerator.EPOCH_MILLIS + 1_000);
+    }
+
+    private Set<Long> runConcurrently(IdSupplier supplier) throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids.add(supplier.next());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    private interface IdSupplier {
+        long next();
+    }
+}
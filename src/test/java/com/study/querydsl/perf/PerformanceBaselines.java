@@ -0,0 +1,86 @@
+package com.study.querydsl.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * 체크인된 기준값(src/test/resources/perf/query-baselines.properties)과 측정값 비교
+ *  - &lt;query&gt;.statements : SQL 문 수, tolerance.statements 만큼 초과 허용
+ *  - &lt;query&gt;.bytes : 1회 실행 할당 바이트, 기준값 * (1 + tolerance.bytes) 까지 허용
+ *  - -Dperf.baseline.update=true 로 실행하면 비교 대신 build/perf/query-baselines.properties 에 측정값을 기록한다
+ */
+class PerformanceBaselines {
+
+    private static final String RESOURCE = "/perf/query-baselines.properties";
+    private static final Path UPDATE_FILE = Paths.get("build", "perf", "query-baselines.properties");
+
+    private final Properties baselines = new Properties();
+    private final boolean updateMode = Boolean.getBoolean("perf.baseline.update");
+
+    PerformanceBaselines() {
+        try (InputStream in = PerformanceBaselines.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                baselines.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void verify(QueryMeasurement measurement) {
+        System.out.println(">>>> " + measurement);
+        if (updateMode) {
+            record(measurement);
+            return;
+        }
+
+        String name = measurement.getName();
+        String statements = baselines.getProperty(name + ".statements");
+        String bytes = baselines.getProperty(name + ".bytes");
+        if (statements == null || bytes == null) {
+            fail("no baseline for '%s' (measured %s), run with -Dperf.baseline.update=true and copy %s",
+                    name, measurement, UPDATE_FILE);
+        }
+
+        long maxStatements = Long.parseLong(statements) + Long.parseLong(baselines.getProperty("tolerance.statements", "0"));
+        long maxBytes = (long) (Long.parseLong(bytes) * (1 + Double.parseDouble(baselines.getProperty("tolerance.bytes", "0.25"))));
+
+        assertThat(measurement.getStatements())
+                .as("%s - SQL statements (baseline %s)", name, statements)
+                .isLessThanOrEqualTo(maxStatements);
+        assertThat(measurement.getAllocatedBytes())
+                .as("%s - allocated bytes per query (baseline %s)", name, bytes)
+                .isLessThanOrEqualTo(maxBytes);
+    }
+
+    private synchronized void record(QueryMeasurement measurement) {
+        try {
+            Properties updated = new Properties();
+            if (Files.exists(UPDATE_FILE)) {
+                try (InputStream in = Files.newInputStream(UPDATE_FILE)) {
+                    updated.load(in);
+                }
+            } else {
+                updated.putAll(baselines);
+            }
+            updated.setProperty(measurement.getName() + ".statements", String.valueOf(measurement.getStatements()));
+            updated.setProperty(measurement.getName() + ".bytes", String.valueOf(measurement.getAllocatedBytes()));
+
+            Files.createDirectories(UPDATE_FILE.getParent());
+            try (OutputStream out = Files.newOutputStream(UPDATE_FILE)) {
+                updated.store(out, "measured query baselines - copy to src/test/resources" + RESOURCE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.study.querydsl.perf;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+class QueryMeasurement {
+
+    private final String name;
+    private final long statements;
+    private final long allocatedBytes;
+
+    QueryMeasurement(String name, long statements, long allocatedBytes) {
+        this.name = name;
+        this.statements = statements;
+        this.allocatedBytes = allocatedBytes;
+    }
+}
@@ -0,0 +1,58 @@
+package com.study.querydsl.perf;
+
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 쿼리 1회 실행당 SQL 문 수(Hibernate Statistics)와 할당 바이트(ThreadMXBean) 측정
+ *  - 실행마다 영속성 컨텍스트를 비워 1차 캐시가 N+1 을 가리지 않도록 한다
+ *  - JIT / 쿼리 플랜 캐시 워밍업 후 여러 번 측정하여 할당 바이트는 최소값을 사용한다
+ */
+class QueryPerformanceProbe {
+
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 5;
+
+    private final EntityManager em;
+    private final Statistics statistics;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    QueryPerformanceProbe(EntityManager em, Statistics statistics) {
+        this.em = em;
+        this.statistics = statistics;
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("thread allocated memory measurement is not supported by this JVM");
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        statistics.setStatisticsEnabled(true);
+    }
+
+    QueryMeasurement measure(String name, Runnable query) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run(query);
+        }
+
+        long statements = -1;
+        long minAllocatedBytes = Long.MAX_VALUE;
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            em.clear();
+            statistics.clear();
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            query.run();
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+            statements = Math.max(statements, statistics.getPrepareStatementCount());
+            minAllocatedBytes = Math.min(minAllocatedBytes, allocated);
+        }
+        return new QueryMeasurement(name, statements, minAllocatedBytes);
+    }
+
+    private void run(Runnable query) {
+        em.clear();
+        query.run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.study.querydsl.perf;
+
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.study.querydsl.entity.Member;
+import com.study.querydsl.entity.QMember;
+import com.study.querydsl.entity.Team;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static com.study.querydsl.entity.QMember.member;
+import static com.study.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * QueryDslBasicTest 의 주요 쿼리에 대한 SQL 문 수 / 할당 바이트 회귀 테스트
+ *  - 기준값: src/test/resources/perf/query-baselines.properties
+ *  - 기준값 갱신: ./gradlew test --tests '*QueryPerformanceRegressionTest' -Dperf.baseline.update=true
+ *  - SQL 로그(org.hibernate.SQL, p6spy)는 끈다 - 로그 포맷팅 할당이 쿼리 자체의 할당보다 커서 회귀를 가린다
+ *    p6spy 모듈 설정은 JVM 에서 처음 뜬 컨텍스트의 것이 유지되므로 p6spy 로거 레벨도 함께 끈다
+ *  - 스키마를 다시 만들지 않고(update) 남아 있는 회원 / 팀은 테스트 트랜잭션 안에서 지운다
+ */
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.p6spy=off",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "spring.jpa.hibernate.ddl-auto=update"
+})
+@Transactional
+@DisplayName("Querydsl 쿼리 성능 회귀 테스트")
+class QueryPerformanceRegressionTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @PersistenceUnit
+    EntityManagerFactory emf;
+
+    JPAQueryFactory queryFactory;
+    Statistics statistics;
+    QueryPerformanceProbe probe;
+    PerformanceBaselines baselines = new PerformanceBaselines();
+
+    @BeforeEach
+    public void before() {
+        queryFactory = new JPAQueryFactory(em);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        probe = new QueryPerformanceProbe(em, statistics);
+
+        queryFactory.delete(member).execute();
+        queryFactory.delete(team).execute();
+
+        Team teamA = new Team("데이터 플랫폼 팀");
+        Team teamB = new Team("인프라 팀");
+        Team teamC = new Team("웹 개발 팀");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        em.persist(new Member("김영민", 33, teamA));
+        em.persist(new Member("원영식", 30, teamA));
+        em.persist(new Member("김진엽", 27, teamB));
+        em.persist(new Member("박진우", 28, teamB));
+        em.persist(new Member("임수현", 29, teamB));
+        em.persist(new Member("데이터 플랫폼 팀", 20));
+
+        // insert 가 측정 구간의 auto flush 로 잡히지 않도록 미리 반영한다
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    public void after() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("단일 회원 검색")
+    public void findMemberByUserName() throws Exception {
+        measure("findMemberByUserName", () -> {
+            Member findMember = queryFactory
+                    .selectFrom(member)
+                    .where(member.userName.eq("임수현"))
+                    .fetchOne();
+            assertThat(findMember.getUserName()).isEqualTo("임수현");
+        });
+    }
+
+    @Test
+    @DisplayName("페치 조인 - 팀 접근 시 추가 쿼리 없음")
+    public void fetchJoin() throws Exception {
+        measure("fetchJoin", () -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team).fetchJoin()
+                    .fetch();
+            members.forEach(m -> m.getTeam().getName());
+            assertThat(members).hasSize(5);
+        });
+    }
+
+    @Test
+    @DisplayName("지연 로딩 - 팀 수만큼 추가 쿼리 (N+1)")
+    public void lazyLoadingTeams() throws Exception {
+        measure("lazyLoadingTeams", () -> {
+            List<Member> members = queryFactory
+                    .selectFrom(member)
+                    .join(member.team, team)
+                    .fetch();
+            members.forEach(m -> m.getTeam().getName());
+            assertThat(members).hasSize(5);
+        });
+    }
+
+    @Test
+    @DisplayName("Count 포함 페이징")
+    public void pagingWithCount() throws Exception {
+        measure("pagingWithCount", () -> {
+            QueryResults<Member> result = queryFactory
+                    .selectFrom(member)
+                    .orderBy(member.age.desc())
+                    .offset(0)
+                    .limit(3)
+                    .fetchResults();
+            assertThat(result.getResults()).hasSize(3);
+        });
+    }
+
+    @Test
+    @DisplayName("groupBy")
+    public void groupBy() throws Exception {
+        measure("groupBy", () -> {
+            List<Tuple> result = queryFactory
+                    .select(team.name, member.age.avg())
+                    .from(member)
+                    .join(member.team, team)
+                    .groupBy(team.name)
+                    .fetch();
+            assertThat(result).hasSize(2);
+        });
+    }
+
+    @Test
+    @DisplayName("세타 조인")
+    public void thetaJoin() throws Exception {
+        measure("thetaJoin", () -> {
+            List<Member> result = queryFactory
+                    .select(member)
+                    .from(member, team)
+                    .where(member.userName.eq(team.name))
+                    .fetch();
+            assertThat(result).extracting("userName").containsExactly("데이터 플랫폼 팀");
+        });
+    }
+
+    @Test
+    @DisplayName("where 절 서브쿼리")
+    public void subQuery() throws Exception {
+        QMember memberSub = new QMember("memberSub");
+
+        measure("subQuery", () -> {
+            List<Member> result = queryFactory
+                    .selectFrom(member)
+                    .where(member.age.eq(
+                            select(memberSub.age.max())
+                                    .from(memberSub)
+                    ))
+                    .fetch();
+            assertThat(result).extracting("age").containsExactly(33);
+        });
+    }
+
+    private void measure(String name, Runnable query) {
+        baselines.verify(probe.measure(name, query));
+    }
+}